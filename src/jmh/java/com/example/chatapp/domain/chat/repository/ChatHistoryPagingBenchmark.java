@@ -0,0 +1,114 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 방 크기별 채팅 기록 한 페이지 조회 시간.
+ *
+ * 최신 페이지와 방 한가운데 커서에서 시작하는 깊은 페이지를 잰다.
+ * keyset 페이지네이션이면 방 크기가 천 배 커져도 두 값이 같은 범위에 머물러야 한다.
+ * MongoDB 는 Testcontainers 로 띄우므로 docker 가 필요하다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatHistoryPagingBenchmark {
+
+    private static final String DATABASE = "chat_paging_benchmark";
+    private static final String ROOM_ID = "paging-room";
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    public int roomSize;
+
+    private MongoDBContainer mongo;
+    private MongoClient client;
+    private ChatMessageRepositoryImpl repository;
+    private ChatMessage middle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        client = MongoClients.create(mongo.getReplicaSetUrl(DATABASE));
+        MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessage.class);
+        IndexResolver.create(mappingContext).resolveIndexFor(ChatMessage.class).forEach(indexOps::ensureIndex);
+
+        List<ChatMessage> batch = new ArrayList<>();
+        for (int i = 0; i < roomSize; i++) {
+            batch.add(ChatMessage.builder()
+                    .roomId(ROOM_ID)
+                    .seq((long) i + 1)
+                    .message("message " + i)
+                    .senderId("user-" + (i % 7))
+                    .senderName("user-" + (i % 7))
+                    .messageType(MessageType.CHAT)
+                    .timestamp(BASE_TIME.plusSeconds(i / 3))
+                    .build());
+            if (batch.size() == 10_000) {
+                mongoTemplate.insert(batch, ChatMessage.class);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, ChatMessage.class);
+        }
+
+        middle = mongoTemplate.findOne(new Query(Criteria.where("roomId").is(ROOM_ID))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                .skip(roomSize / 2), ChatMessage.class);
+        repository = new ChatMessageRepositoryImpl(mongoTemplate,
+                new ChatMessageBucketStore(mongoTemplate), new ChatMessageArchive(new ObjectMapper()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public List<ChatMessage> newestPage() {
+        return repository.findPageBefore(ROOM_ID, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ChatMessage> deepPageBefore() {
+        return repository.findPageBefore(ROOM_ID, middle.getTimestamp(), middle.getId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ChatMessage> deepPageAfter() {
+        return repository.findPageAfter(ROOM_ID, middle.getTimestamp(), middle.getId(), PAGE_SIZE);
+    }
+}
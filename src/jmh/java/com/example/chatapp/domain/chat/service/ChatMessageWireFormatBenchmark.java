@@ -0,0 +1,111 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.interceptor.WireFormatChannelInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 과 compact(CBOR) wire format 으로 방 메시지 하나(또는 backfill 배열)를 STOMP MESSAGE 프레임까지 쓰는 CPU 를 비교한다.
+ * 프레임 바이트 수는 CompactChatMessageEncoderTest 가 같은 헤더로 확인한다.
+ *
+ * compact 는 JSON 인코딩 결과를 다시 변환하므로 compactFrame 은 jsonFrame 에 변환 비용이 더해진 값이다.
+ * 변환 결과는 같은 페이로드를 받는 세션끼리 공유하므로, 구독자마다 드는 비용은 프레임 쓰기뿐이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatMessageWireFormatBenchmark {
+
+    @Param({"short", "long", "multibyte"})
+    public String kind;
+
+    private final ChatMessageResponseEncoder jsonEncoder = new ChatMessageResponseEncoder();
+    private final CompactChatMessageEncoder compactEncoder = new CompactChatMessageEncoder();
+    private final StompEncoder stompEncoder = new StompEncoder();
+
+    private ChatMessageResponse message;
+    private byte[] backfillJson;
+    private Map<String, Object> jsonHeaders;
+    private Map<String, Object> compactHeaders;
+
+    @Setup
+    public void setUp() {
+        String text = switch (kind) {
+            case "short" -> "ok see you at 3";
+            case "long" -> "meeting notes: ".repeat(60);
+            default -> "안녕하세요 오늘 회의는 세 시에 시작합니다 ".repeat(10);
+        };
+        message = ChatMessageResponse.builder()
+                .roomId("a1b2c3d4")
+                .seq(1_234_567L)
+                .message(text)
+                .senderId("user-4821")
+                .senderName("user-4821")
+                .messageType(MessageType.CHAT)
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .build();
+        byte[] json = jsonEncoder.encode(message);
+
+        ByteArrayOutputStream backfill = new ByteArrayOutputStream();
+        backfill.write('[');
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) {
+                backfill.write(',');
+            }
+            backfill.writeBytes(json);
+        }
+        backfill.write(']');
+        backfillJson = backfill.toByteArray();
+
+        jsonHeaders = messageHeaders(false);
+        compactHeaders = messageHeaders(true);
+    }
+
+    @Benchmark
+    public byte[] jsonFrame() {
+        return stompEncoder.encode(jsonHeaders, jsonEncoder.encode(message));
+    }
+
+    @Benchmark
+    public byte[] compactFrame() {
+        return stompEncoder.encode(compactHeaders, compactEncoder.encodeFromJson(jsonEncoder.encode(message)));
+    }
+
+    @Benchmark
+    public byte[] compactBackfillFrame() {
+        return stompEncoder.encode(compactHeaders, compactEncoder.encodeFromJson(backfillJson));
+    }
+
+    // StompSubProtocolHandler 가 구독 세션에 보내는 MESSAGE 프레임 헤더
+    private static Map<String, Object> messageHeaders(boolean compact) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/sub/room/a1b2c3d4");
+        accessor.setMessageId("session-1-42");
+        if (compact) {
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(WireFormatChannelInterceptor.WIRE_FORMAT_HEADER,
+                    WireFormatChannelInterceptor.CBOR_FORMAT);
+        } else {
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        }
+        return accessor.getMessageHeaders();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 한 건의 sanitize 비용.
+ *
+ * 실제 채팅에 가까운 입력(짧은 문장, 한글, 이모지, 가끔 섞인 특수문자)과
+ * 최악의 입력(전부 엔티티로 바뀌는 문자, 길이 제한을 크게 넘는 메시지, 짝 없는 서로게이트)을 함께 잰다.
+ * 바꿀 것이 없는 메시지는 검사만 하고 원본을 돌려주므로 plain 계열과 나머지의 차이가 rewrite 비용이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageSanitizerBenchmark {
+
+    private static final int MAX_LENGTH = 1000;
+
+    @Param({"plain", "korean", "emoji", "mixed", "allEntities", "oversized", "loneSurrogates"})
+    public String kind;
+
+    private final MessageSanitizer sanitizer = new MessageSanitizer();
+
+    private String message;
+
+    @Setup
+    public void setUp() throws Exception {
+        Field maxLength = MessageSanitizer.class.getDeclaredField("maxLength");
+        maxLength.setAccessible(true);
+        maxLength.setInt(sanitizer, MAX_LENGTH);
+
+        message = switch (kind) {
+            case "plain" -> "ok see you at 3, bring the slides please";
+            case "korean" -> "안녕하세요 오늘 회의는 세 시에 시작합니다. 자료 미리 봐 주세요";
+            case "emoji" -> "배포 끝났습니다 😀🎉 수고하셨어요 👍";
+            case "mixed" -> "if (a < b && c > d) { return \"it's ok\"; } ".repeat(4);
+            // 모든 문자가 엔티티가 되어 출력이 입력의 5~6배가 되는 경우
+            case "allEntities" -> "<>&\"'".repeat(400);
+            // 길이 제한의 열 배: 앞부분만 처리하고 멈추는지
+            case "oversized" -> "lorem ipsum dolor sit amet ".repeat(400);
+            default -> "a\uD83D".repeat(300);
+        };
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return sanitizer.sanitize(message);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 방 브로드캐스트 한 건을 구독자 수별로 끝까지 흘려 보내는 비용.
+ *
+ * SimpleBrokerMessageHandler 에 subscribers 개의 세션 구독을 등록하고, ClusterMessageRelay.deliverLocally 와 같은
+ * 메시지를 brokerChannel 로 보낸다. 채널은 모두 동기식이라 한 번의 측정은 브로커의 구독자 조회와
+ * 구독자마다의 STOMP MESSAGE 프레임 인코딩(StompSubProtocolHandler 와 같은 방식)까지 포함한다.
+ * Redis 발행 본문(nodeId + 구분자 + JSON) 조립도 포함하지만 네트워크 전송은 포함하지 않는다.
+ *
+ * objectMapper 는 이전 경로(ObjectMapper 로 String 을 만든 뒤 getBytes, Redis 본문은 문자열 연결),
+ * encoder 는 현재 경로(ChatMessageResponseEncoder 로 byte[] 를 한 번 만들고 로컬 전달과 Redis 본문이 공유)다.
+ * 두 경로 모두 페이로드 byte[] 는 구독자 간에 공유되므로 차이는 브로드캐스트당 고정 비용이고,
+ * 구독자 수에 비례하는 부분은 세션별 STOMP 헤더 인코딩이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomBroadcastFanOutBenchmark {
+
+    private static final String ROOM_ID = "a1b2c3d4";
+    private static final String DESTINATION = "/sub/room/" + ROOM_ID;
+    private static final String NODE_ID = "node-1";
+    private static final char ORIGIN_SEPARATOR = '\n';
+
+    @Param({"1", "100", "1000", "10000"})
+    public int subscribers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ChatMessageResponseEncoder encoder = new ChatMessageResponseEncoder();
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final byte[] nodeIdBytes = NODE_ID.getBytes(StandardCharsets.UTF_8);
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatMessageResponse response;
+
+    private long frameBytes;
+    private int frames;
+
+    @Setup
+    public void setUp() {
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutboundChannel.subscribe(this::writeFrame);
+
+        broker = new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/sub"));
+        broker.start();
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId("session-" + i);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+
+        response = ChatMessageResponse.builder()
+                .roomId(ROOM_ID)
+                .seq(1_234_567L)
+                .message("ok see you at 3, bring the slides")
+                .senderId("user-4821")
+                .senderName("user-4821")
+                .messageType(MessageType.CHAT)
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public long objectMapper() throws Exception {
+        String json = objectMapper.writeValueAsString(response);
+        deliverLocally(json.getBytes(StandardCharsets.UTF_8));
+        return (NODE_ID + ORIGIN_SEPARATOR + json).getBytes(StandardCharsets.UTF_8).length + drainFrameBytes();
+    }
+
+    @Benchmark
+    public long encoder() {
+        byte[] json = encoder.encode(response);
+        deliverLocally(json);
+        byte[] body = new byte[nodeIdBytes.length + 1 + json.length];
+        System.arraycopy(nodeIdBytes, 0, body, 0, nodeIdBytes.length);
+        body[nodeIdBytes.length] = (byte) ORIGIN_SEPARATOR;
+        System.arraycopy(json, 0, body, nodeIdBytes.length + 1, json.length);
+        return body.length + drainFrameBytes();
+    }
+
+    private void deliverLocally(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(DESTINATION, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    // StompSubProtocolHandler.handleMessageToClient 가 세션마다 하는 인코딩
+    private void writeFrame(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        accessor.updateStompCommandAsServerMessage();
+        frameBytes += stompEncoder.encode(accessor.getMessageHeaders(), (byte[]) message.getPayload()).length;
+        frames++;
+    }
+
+    private long drainFrameBytes() {
+        if (frames != subscribers) {
+            throw new IllegalStateException("Expected " + subscribers + " frames but wrote " + frames);
+        }
+        long written = frameBytes;
+        frameBytes = 0;
+        frames = 0;
+        return written;
+    }
+}
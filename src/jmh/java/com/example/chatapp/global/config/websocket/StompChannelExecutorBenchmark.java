@@ -0,0 +1,134 @@
+package com.example.chatapp.global.config.websocket;
+
+import org.apache.commons.logging.LogFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * STOMP inbound 채널의 executor 모드별 처리량과 지연.
+ *
+ * 세션마다 OrderedMessageChannelDecorator 를 두어 setPreserveReceiveOrder(true) 와 같은 세션별 순서를 유지하고,
+ * 핸들러는 blockingMillis 동안 블로킹해 @MessageMapping 이 Mongo/Postgres/Redis 를 기다리는 상황을 흉내 낸다.
+ * platform 은 Spring 기본 inbound 풀(코어 수 x 2, 무제한 큐), virtual 은 WebSocketConfig 의 가상 스레드 executor 다.
+ *
+ * 한 번의 측정은 모든 세션이 messagesPerSession 건씩 보낸 burst 를 전부 처리할 때까지의 시간이다.
+ * SampleTime 의 p50/p99 가 burst 지연이고, 처리량은 (sessions x messagesPerSession) / 평균 시간이다.
+ * 세션별 순서가 어긋나면 trial 이 끝날 때 실패한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StompChannelExecutorBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String executorMode;
+
+    @Param({"100", "1000"})
+    public int sessions;
+
+    @Param({"5"})
+    public int messagesPerSession;
+
+    @Param({"0", "5"})
+    public long blockingMillis;
+
+    private ThreadPoolTaskExecutor platformExecutor;
+    private final List<MessageChannel> sessionChannels = new ArrayList<>();
+    private final List<List<Message<int[]>>> sessionMessages = new ArrayList<>();
+    private AtomicIntegerArray lastSeq;
+    private final AtomicInteger outOfOrder = new AtomicInteger();
+    private volatile CountDownLatch remaining;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Executor executor;
+        if ("virtual".equals(executorMode)) {
+            executor = new VirtualThreadTaskExecutor("stomp-inbound-");
+        } else {
+            // ChannelRegistration 을 설정하지 않았을 때의 clientInboundChannel 풀과 같은 구성
+            platformExecutor = new ThreadPoolTaskExecutor();
+            platformExecutor.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+            platformExecutor.setAllowCoreThreadTimeOut(true);
+            platformExecutor.setThreadNamePrefix("clientInboundChannel-");
+            platformExecutor.initialize();
+            executor = platformExecutor;
+        }
+
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        OrderedMessageChannelDecorator.configureInterceptor(channel, true);
+        channel.subscribe(this::handle);
+
+        lastSeq = new AtomicIntegerArray(sessions);
+        for (int session = 0; session < sessions; session++) {
+            sessionChannels.add(new OrderedMessageChannelDecorator(channel,
+                    LogFactory.getLog(StompChannelExecutorBenchmark.class)));
+            List<Message<int[]>> messages = new ArrayList<>(messagesPerSession);
+            for (int seq = 1; seq <= messagesPerSession; seq++) {
+                messages.add(MessageBuilder.withPayload(new int[]{session, seq}).build());
+            }
+            sessionMessages.add(messages);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdown();
+        }
+        if (outOfOrder.get() > 0) {
+            throw new IllegalStateException(outOfOrder.get() + " messages were handled out of session order");
+        }
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        for (int session = 0; session < sessions; session++) {
+            lastSeq.set(session, 0);
+        }
+        remaining = new CountDownLatch(sessions * messagesPerSession);
+        for (int seq = 0; seq < messagesPerSession; seq++) {
+            for (int session = 0; session < sessions; session++) {
+                sessionChannels.get(session).send(sessionMessages.get(session).get(seq));
+            }
+        }
+        remaining.await();
+    }
+
+    private void handle(Message<?> message) {
+        int[] payload = (int[]) message.getPayload();
+        if (blockingMillis > 0) {
+            try {
+                Thread.sleep(blockingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (lastSeq.getAndSet(payload[0], payload[1]) != payload[1] - 1) {
+            outOfOrder.incrementAndGet();
+        }
+        remaining.countDown();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.chatapp.global.security.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 핸드셰이크 한 번의 토큰 인증 비용.
+ *
+ * rebuildKeyAndParseTwice 는 키와 파서를 매번 만들고 validateToken, extractUserId 에서 두 번 파싱하던 이전 방식이다.
+ * uncached 는 한 번 만든 키/파서로 한 번만 검증하는 경우(캐시 크기 0), cached 는 재연결로 같은 토큰이 다시 오는 경우다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-of-at-least-32-bytes";
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        cachedService = newService(10_000);
+        uncachedService = newService(0);
+        token = cachedService.generateToken("user-4821");
+        // 캐시를 채워 둔다
+        cachedService.verifyAndExtract(token);
+    }
+
+    @Benchmark
+    public void rebuildKeyAndParseTwice(Blackhole blackhole) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+        SecretKey keyAgain = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(Jwts.parser().verifyWith(keyAgain).build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public Claims uncached() {
+        return uncachedService.verifyAndExtract(token);
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return cachedService.verifyAndExtract(token);
+    }
+
+    private static JwtService newService(long cacheSize) throws Exception {
+        JwtService service = new JwtService();
+        setField(service, "secret", SECRET);
+        setField(service, "expiration", TimeUnit.HOURS.toMillis(24));
+        setField(service, "verifiedCacheMaximumSize", cacheSize);
+        service.init();
+        return service;
+    }
+
+    private static void setField(JwtService service, String name, Object value) throws Exception {
+        Field field = JwtService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
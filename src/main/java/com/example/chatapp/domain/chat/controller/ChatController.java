@@ -3,6 +3,7 @@ package com.example.chatapp.domain.chat.controller;
 import com.example.chatapp.domain.chat.dto.MessageType;
 import com.example.chatapp.domain.chat.dto.UnifiedMessageRequest;
 import com.example.chatapp.domain.chat.service.ChatService;
+import com.example.chatapp.domain.chat.service.RoomPresenceEngine;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Controller;
 public class ChatController {
 
     private final ChatService chatService;
+    private final RoomPresenceEngine roomPresenceEngine;
 
     @MessageMapping("/room/chat/send")
     public void sendMessage(@Valid @Payload UnifiedMessageRequest message, 
@@ -65,7 +67,7 @@ public class ChatController {
                 return;
             }
             
-            chatService.handleUserJoin(roomId, userId);
+            roomPresenceEngine.join(roomId, userId);
             
         } catch (Exception e) {
             log.error("Error processing join message: {}", e.getMessage(), e);
@@ -89,7 +91,7 @@ public class ChatController {
                 return;
             }
             
-            chatService.handleUserLeave(roomId, userId);
+            roomPresenceEngine.leave(roomId, userId);
             
         } catch (Exception e) {
             log.error("Error processing leave message: {}", e.getMessage(), e);
@@ -1,8 +1,12 @@
 package com.example.chatapp.domain.chat.controller;
 
-import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.dto.ChatHistoryResponse;
+import com.example.chatapp.domain.chat.dto.ChatSearchResponse;
+import com.example.chatapp.domain.chat.dto.SessionLagResponse;
+import com.example.chatapp.domain.chat.interceptor.SlowConsumerMonitor;
 import com.example.chatapp.domain.chat.service.ChatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,14 +19,44 @@ import java.util.Set;
 public class ChatRestController {
 
     private final ChatService chatService;
+    private final SlowConsumerMonitor slowConsumerMonitor;
 
     @GetMapping("/rooms/{roomId}/history")
-    public ResponseEntity<List<ChatMessage>> getChatHistory(
+    public ResponseEntity<ChatHistoryResponse> getChatHistory(
             @PathVariable String roomId,
-            @RequestParam(defaultValue = "50") int limit) {
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after) {
         
-        List<ChatMessage> messages = chatService.getChatHistory(roomId, limit);
-        return ResponseEntity.ok(messages);
+        if (before != null && after != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            ChatHistoryResponse history = chatService.getChatHistory(roomId, limit, before, after);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/rooms/{roomId}/search")
+    public ResponseEntity<ChatSearchResponse> searchMessages(
+            @PathVariable String roomId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        try {
+            ChatSearchResponse response = chatService.searchMessages(roomId, q, page, size);
+            if (response.isTimedOut()) {
+                // 빈 결과를 "일치 없음" 으로 오해하지 않도록 상태 코드로도 알린다
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/rooms/{roomId}/users")
@@ -31,6 +65,12 @@ public class ChatRestController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/sessions/lagging")
+    public ResponseEntity<List<SessionLagResponse>> getLaggingSessions(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(slowConsumerMonitor.getWorstLaggingSessions(Math.max(1, Math.min(limit, 100))));
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Chat service is running");
@@ -0,0 +1,27 @@
+package com.example.chatapp.domain.chat.dto;
+
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryResponse {
+
+    // 최신순 (timestamp DESC, id DESC)
+    private List<ChatMessage> messages;
+
+    // 더 오래된 메시지를 요청할 때 before 파라미터로 사용
+    private String nextCursor;
+
+    // 더 최근 메시지를 요청할 때 after 파라미터로 사용
+    private String prevCursor;
+
+    private boolean hasMore;
+}
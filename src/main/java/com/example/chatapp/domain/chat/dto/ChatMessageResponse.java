@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 public class ChatMessageResponse {
     
     private String roomId;
+    // 방별 단조 증가 시퀀스. 클라이언트는 마지막으로 받은 값을 last-seq 로 보내 놓친 메시지만 받는다
+    private Long seq;
     private String message;
     private String senderId;
     private String senderName;
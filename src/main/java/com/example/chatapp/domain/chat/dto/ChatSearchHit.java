@@ -0,0 +1,47 @@
+package com.example.chatapp.domain.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 검색 결과 한 건. chat_messages 문서를 텍스트 점수와 함께 바로 매핑한다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSearchHit {
+
+    @Id
+    private String id;
+    private String roomId;
+    private Long seq;
+    private String message;
+    private String senderId;
+    private String senderName;
+    private MessageType messageType;
+    private LocalDateTime timestamp;
+
+    @TextScore
+    private Float score;
+
+    // message 안에서 검색어와 일치하는 구간 [start, end)
+    @Transient
+    private List<HighlightRange> highlights;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HighlightRange {
+        private int start;
+        private int end;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.chatapp.domain.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSearchResponse {
+
+    // 텍스트 점수 높은 순
+    private List<ChatSearchHit> results;
+
+    private int page;
+
+    private int size;
+
+    private boolean hasMore;
+
+    // chat.search.max-time-ms 안에 끝나지 않아 결과를 돌려주지 못함
+    private boolean timedOut;
+}
@@ -0,0 +1,47 @@
+package com.example.chatapp.domain.chat.dto;
+
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 채팅 기록 keyset 페이지네이션 커서 (timestamp, id).
+ * 클라이언트에는 불투명한 Base64 URL-safe 문자열로 전달된다.
+ */
+@Getter
+@AllArgsConstructor
+public class HistoryCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final String id;
+
+    public static HistoryCursor from(ChatMessage message) {
+        return new HistoryCursor(message.getTimestamp(), message.getId());
+    }
+
+    public static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx <= 0 || idx == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed history cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, idx)), raw.substring(idx + 1));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed history cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.chatapp.domain.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionLagResponse {
+    private String sessionId;
+    private int pendingMessages;
+    private long oldestPendingMs;
+    private long droppedMessages;
+}
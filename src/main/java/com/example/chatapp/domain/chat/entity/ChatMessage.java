@@ -6,20 +6,29 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "chat_messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "room_timestamp_id_idx", def = "{'roomId': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "room_seq_idx", def = "{'roomId': 1, 'seq': 1}"),
+        // roomId 동등 조건을 접두어로 둔 텍스트 인덱스: 검색이 해당 방의 엔트리만 훑는다
+        @CompoundIndex(name = "room_message_text_idx", def = "{'roomId': 1, 'message': 'text'}")
+})
 public class ChatMessage {
     
     @Id
     private String id;
     private String roomId;
+    private Long seq;
     private String message;
     private String senderId;
     private String senderName;
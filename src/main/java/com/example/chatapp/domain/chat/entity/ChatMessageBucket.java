@@ -0,0 +1,45 @@
+package com.example.chatapp.domain.chat.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * bucket 저장 방식에서 (roomId, 시간 구간) 하나에 해당하는 문서.
+ * 구간 안의 메시지는 messages 배열에 $push 로 추가되며, 배열 원소에는 roomId 를 저장하지 않는다.
+ * 한 구간이 여러 part 문서로 나뉠 수 있다.
+ * 검색은 메시지당 문서인 ChatMessageSearchEntry 가 맡는다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "chat_message_buckets")
+@CompoundIndexes({
+        @CompoundIndex(name = "room_bucket_start_part_idx", def = "{'roomId': 1, 'bucketStart': -1, 'part': -1}"),
+        // seq 이후 조회: minSeq 순으로 훑으면서 maxSeq 조건은 인덱스에서 걸러 오래된 part 는 읽지 않는다
+        @CompoundIndex(name = "room_seq_range_idx", def = "{'roomId': 1, 'minSeq': 1, 'maxSeq': 1}")
+})
+public class ChatMessageBucket {
+
+    // roomId + ":" + bucketStart, part 가 1 이상이면 뒤에 ":" + part
+    @Id
+    private String id;
+    private String roomId;
+    private LocalDateTime bucketStart;
+    // 같은 구간에서 앞 문서가 max-messages 에 닿으면 다음 번호로 넘어간다
+    private int part;
+    private int count;
+    // 담긴 메시지의 seq 범위. 경계 구간 정리 뒤에는 실제보다 넓을 수 있다
+    private Long minSeq;
+    private Long maxSeq;
+    private List<ChatMessage> messages;
+}
@@ -0,0 +1,40 @@
+package com.example.chatapp.domain.chat.entity;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * bucket 저장 방식에서 메시지 검색용으로 따로 두는 메시지당 문서.
+ * 구간 문서에 텍스트 인덱스를 걸면 점수와 skip/limit 이 구간 단위가 되므로, 검색은 이 컬렉션에서 메시지 단위로 한다.
+ * 텍스트 인덱스 하나만 두어 쓰기 비용을 줄인다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "chat_message_search")
+@CompoundIndexes({
+        @CompoundIndex(name = "room_message_text_idx", def = "{'roomId': 1, 'message': 'text'}")
+})
+public class ChatMessageSearchEntry {
+
+    // ChatMessage 의 id 와 같다
+    @Id
+    private String id;
+    private String roomId;
+    private Long seq;
+    private String message;
+    private String senderId;
+    private String senderName;
+    private MessageType messageType;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,131 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.service.MessageRateLimiter;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅 전송 프레임을 검증과 서비스 처리 전에 속도 제한한다.
+ *
+ * 한도를 넘은 프레임은 버리고, 재시도 가능한 시점마다 한 번씩 해당 세션에만 SYSTEM 메시지
+ * (rate-limited, retry-after-ms 헤더)를 보내 클라이언트가 전송을 멈추게 한다.
+ * 그래도 연속으로 max-violations 번 넘게 보내면 STOMP ERROR 를 보내 연결을 끊는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageRateLimitInterceptor implements ChannelInterceptor {
+
+    public static final String RATE_LIMITED_HEADER = "rate-limited";
+    public static final String RETRY_AFTER_HEADER = "retry-after-ms";
+
+    private static final String SEND_DESTINATION = "/pub/room/chat/send";
+
+    private final MessageRateLimiter messageRateLimiter;
+    private final SessionMessageSender sessionMessageSender;
+    private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+
+    @Value("${chat.ratelimit.max-violations:50}")
+    private int maxViolations;
+
+    // sessionId -> 연속 위반 상태. 한도에 걸린 적 있는 세션만 가진다
+    private final Map<String, Violations> violations = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !SEND_DESTINATION.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (sessionId == null || attributes == null
+                || !(attributes.get("userId") instanceof String userId)
+                || !(attributes.get("roomId") instanceof String roomId)) {
+            // 세션 정보가 없으면 컨트롤러 검증에서 걸러진다
+            return message;
+        }
+
+        MessageRateLimiter.Decision decision = messageRateLimiter.tryAcquire(userId, roomId);
+        if (decision.isAllowed()) {
+            if (!violations.isEmpty()) {
+                violations.remove(sessionId);
+            }
+            return message;
+        }
+
+        reject(sessionId, userId, roomId, decision);
+        return null;
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        violations.remove(event.getSessionId());
+    }
+
+    private void reject(String sessionId, String userId, String roomId, MessageRateLimiter.Decision decision) {
+        Violations state = violations.computeIfAbsent(sessionId, id -> new Violations());
+        int count;
+        boolean notify;
+        synchronized (state) {
+            count = ++state.count;
+            long now = System.currentTimeMillis();
+            notify = now >= state.nextNoticeAt;
+            if (notify) {
+                state.nextNoticeAt = now + decision.getRetryAfterMs();
+            }
+        }
+
+        Map<String, String> headers = Map.of(
+                RATE_LIMITED_HEADER, decision.getScope(),
+                RETRY_AFTER_HEADER, String.valueOf(decision.getRetryAfterMs()));
+
+        if (count > maxViolations) {
+            log.warn("Closing session {} of user {} after {} rate-limited messages", sessionId, userId, count);
+            violations.remove(sessionId);
+            sessionMessageSender.sendError(sessionId, "Rate limit exceeded", headers);
+            return;
+        }
+        if (!notify) {
+            return;
+        }
+
+        String subscriptionId = roomSubscriptionRegistry.findSubscriptionId(sessionId, roomId);
+        if (subscriptionId == null) {
+            return;
+        }
+        ChatMessageResponse notice = ChatMessageResponse.builder()
+                .roomId(roomId)
+                .message("메시지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도해주세요.")
+                .senderId("SYSTEM")
+                .senderName("System")
+                .messageType(MessageType.SYSTEM)
+                .timestamp(LocalDateTime.now())
+                .build();
+        sessionMessageSender.send(sessionId, subscriptionId,
+                RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX + roomId, notice, headers);
+    }
+
+    private static final class Violations {
+        private int count;
+        private long nextNoticeAt;
+    }
+}
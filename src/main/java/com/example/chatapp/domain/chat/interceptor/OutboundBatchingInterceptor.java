@@ -0,0 +1,331 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 고빈도 방을 위한 outbound 메시지 배칭.
+ * CONNECT 시 accept-batch:true 를 보낸 세션은 /sub/room/* 메시지를 짧은 윈도우 동안 구독 단위로 모아
+ * JSON 배열 하나(batch:true 헤더)로 받는다. 프레임 수와 syscall 을 줄이기 위한 opt-in 모드이다.
+ *
+ * 배치를 다른 스레드에서 채널로 보내면 브로커의 세션별 순서 보장(preservePublishOrder)을 벗어나므로,
+ * 배칭 세션의 MESSAGE 프레임은 배치 여부와 관계없이 모두 세션별 outbox 를 거친다.
+ * outbox 는 도착 순서대로 한 번에 하나씩 채널로 보내고, 앞 프레임의 전송 처리가 끝난(afterMessageHandled) 뒤에 다음 프레임을 보낸다.
+ * 배치가 아닌 프레임(backfill, rate limit 알림 등)이 오면 모아 둔 배치를 먼저 닫아 순서를 유지한다.
+ */
+@Slf4j
+@Component
+public class OutboundBatchingInterceptor implements ExecutorChannelInterceptor {
+
+    public static final String ACCEPT_BATCH_HEADER = "accept-batch";
+    public static final String BATCH_HEADER = "batch";
+
+    // outbox 가 다시 보낸 프레임 표시. 값은 전송 완료를 알릴 SessionOutbox
+    private static final String OUTBOX_HEADER = "chatOutbox";
+
+    private final MessageChannel clientOutboundChannel;
+
+    @Value("${chat.websocket.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${chat.websocket.batching.window-ms:20}")
+    private long windowMs;
+
+    @Value("${chat.websocket.batching.max-messages:100}")
+    private int maxMessages;
+
+    // 배칭을 협상한 세션 -> outbox
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    // clientOutboundChannel 은 이 인터셉터를 등록하는 설정에서 만들어지므로 지연 주입한다
+    public OutboundBatchingInterceptor(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stomp-outbound-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!batchingEnabled) {
+            return message;
+        }
+
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.CONNECT) {
+            negotiate(message);
+            return message;
+        }
+        if (messageType != SimpMessageType.MESSAGE || message.getHeaders().containsKey(OUTBOX_HEADER)) {
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        SessionOutbox outbox = sessionId != null ? outboxes.get(sessionId) : null;
+        // 구독 id 가 없는 MESSAGE 는 클라이언트가 보낸 inbound SEND 이다
+        if (outbox == null || subscriptionId == null) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)
+                && isJsonObject(message)) {
+            outbox.addToBatch(subscriptionId, destination, (byte[]) message.getPayload());
+        } else {
+            outbox.addFrame(message);
+        }
+
+        // 원본 메시지는 outbox 가 순서대로 다시 보낸다
+        return null;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        if (message.getHeaders().get(OUTBOX_HEADER) instanceof SessionOutbox outbox) {
+            outbox.sent();
+        }
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionOutbox outbox = outboxes.get(accessor.getSessionId());
+        if (outbox != null && accessor.getSubscriptionId() != null) {
+            outbox.discard(accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        SessionOutbox outbox = outboxes.remove(event.getSessionId());
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.CONNECT && accessor.getCommand() != StompCommand.STOMP) {
+            return;
+        }
+        if ("true".equalsIgnoreCase(accessor.getFirstNativeHeader(ACCEPT_BATCH_HEADER))) {
+            outboxes.put(accessor.getSessionId(), new SessionOutbox(accessor.getSessionId()));
+            log.debug("Session {} enabled outbound batching", accessor.getSessionId());
+        }
+    }
+
+    private static boolean isJsonObject(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        return message.getPayload() instanceof byte[] payload
+                && payload.length > 0 && payload[0] == '{'
+                && contentType != null
+                && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(MimeType.valueOf(contentType.toString()));
+    }
+
+    private final class SessionOutbox {
+
+        private final String sessionId;
+
+        // 아직 닫히지 않은 배치. 같은 구독으로 연속해서 온 메시지만 묶는다
+        private String batchSubscriptionId;
+        private String batchDestination;
+        private List<byte[]> payloads = new ArrayList<>();
+        private ScheduledFuture<?> flushTask;
+
+        private final Queue<Message<?>> frames = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        private SessionOutbox(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        void addToBatch(String subscriptionId, String destination, byte[] payload) {
+            synchronized (this) {
+                if (!payloads.isEmpty() && !subscriptionId.equals(batchSubscriptionId)) {
+                    closeBatch();
+                }
+                batchSubscriptionId = subscriptionId;
+                batchDestination = destination;
+                payloads.add(payload);
+                if (payloads.size() == 1) {
+                    flushTask = scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+                } else if (payloads.size() >= maxMessages) {
+                    closeBatch();
+                }
+            }
+            drain();
+        }
+
+        void addFrame(Message<?> message) {
+            synchronized (this) {
+                closeBatch();
+                frames.add(copy(message));
+            }
+            drain();
+        }
+
+        void flush() {
+            synchronized (this) {
+                closeBatch();
+            }
+            drain();
+        }
+
+        // 구독 해제된 구독으로 갈 배치와 대기 프레임을 버린다
+        synchronized void discard(String subscriptionId) {
+            if (subscriptionId.equals(batchSubscriptionId)) {
+                cancelFlush();
+                payloads = new ArrayList<>();
+                batchSubscriptionId = null;
+            }
+            frames.removeIf(frame -> subscriptionId.equals(SimpMessageHeaderAccessor.getSubscriptionId(frame.getHeaders())));
+        }
+
+        synchronized void close() {
+            closed = true;
+            cancelFlush();
+            payloads = new ArrayList<>();
+            frames.clear();
+        }
+
+        void sent() {
+            synchronized (this) {
+                sending = false;
+            }
+            drain();
+        }
+
+        // 한 번에 한 프레임만 채널에 넘긴다. 전송되지 않은 프레임(인터셉터가 버린 경우 등)은 바로 다음으로 넘어간다
+        private void drain() {
+            while (true) {
+                Message<?> frame;
+                synchronized (this) {
+                    if (sending || closed || frames.isEmpty()) {
+                        return;
+                    }
+                    frame = frames.poll();
+                    sending = true;
+                }
+                boolean dispatched = false;
+                try {
+                    dispatched = clientOutboundChannel.send(frame);
+                } catch (Exception e) {
+                    log.error("Error sending outbound frame to session {}: {}", sessionId, e.getMessage());
+                }
+                if (dispatched) {
+                    return;
+                }
+                synchronized (this) {
+                    sending = false;
+                }
+            }
+        }
+
+        private void closeBatch() {
+            if (payloads.isEmpty()) {
+                return;
+            }
+            cancelFlush();
+            frames.add(batchFrame(batchSubscriptionId, batchDestination, payloads));
+            payloads = new ArrayList<>();
+        }
+
+        private void cancelFlush() {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+        }
+
+        private Message<?> batchFrame(String subscriptionId, String destination, List<byte[]> batch) {
+            // JSON 객체들을 다시 파싱하지 않고 배열로 이어 붙인다
+            int size = 2 + batch.size();
+            for (byte[] payload : batch) {
+                size += payload.length;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+            out.write('[');
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.writeBytes(batch.get(i));
+            }
+            out.write(']');
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setDestination(destination);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setNativeHeader(BATCH_HEADER, "true");
+            accessor.setHeader(OUTBOX_HEADER, this);
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(out.toByteArray(), accessor.getMessageHeaders());
+        }
+
+        // 브로커가 붙인 순서 보장용 내부 헤더를 가져가지 않도록 필요한 헤더만 옮긴다
+        private Message<?> copy(Message<?> message) {
+            SimpMessageHeaderAccessor original = SimpMessageHeaderAccessor.wrap(message);
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE, original.toNativeHeaderMap());
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(original.getSubscriptionId());
+            accessor.setDestination(original.getDestination());
+            if (original.getContentType() != null) {
+                accessor.setContentType(original.getContentType());
+            }
+            accessor.setHeader(OUTBOX_HEADER, this);
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.domain.chat.service.PresenceHeartbeatRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 클라이언트 STOMP heartbeat 와 일반 inbound 프레임을 접속 상태 갱신으로 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceHeartbeatInterceptor implements ChannelInterceptor {
+
+    private final PresenceHeartbeatRecorder presenceHeartbeatRecorder;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.CONNECT || messageType == SimpMessageType.DISCONNECT) {
+            return message;
+        }
+
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (attributes == null) {
+            return message;
+        }
+        Object userId = attributes.get("userId");
+        Object roomId = attributes.get("roomId");
+        if (userId instanceof String user && roomId instanceof String room) {
+            presenceHeartbeatRecorder.record(room, user);
+        }
+        return message;
+    }
+}
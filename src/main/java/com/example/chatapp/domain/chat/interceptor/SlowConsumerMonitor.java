@@ -0,0 +1,348 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.dto.SessionLagResponse;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 세션별 outbound 지연을 추적하고 느린 소비자를 단계적으로 처리한다.
+ *
+ * outbound 채널에서 세션으로 넘긴 MESSAGE 프레임 수와 실제 소켓 전송이 끝난 프레임 수의 차이로 지연을 잰다.
+ * soft 한도를 넘으면 시스템 메시지를 제외한 채팅 메시지를 버리고(shed-mode=drop),
+ * summarize 모드에서는 회복 후 생략된 개수를 시스템 메시지로 알려준다.
+ * hard 한도(메시지 수 또는 가장 오래된 대기 시간)를 넘으면 resume-seq 를 close reason 에 담아 연결을 끊는다.
+ * resume-seq 는 아직 전송되지 못한 가장 오래된 방 메시지 바로 앞의 seq 이며,
+ * 클라이언트는 재연결 후 구독할 때 이 값을 last-seq 로 보내 놓친 메시지부터 다시 받는다.
+ */
+@Slf4j
+@Component
+public class SlowConsumerMonitor implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public static final int SLOW_CONSUMER_CLOSE_CODE = 4008;
+    public static final String RESUME_SEQ_REASON = "resume-seq=";
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEQ_FIELD = "\"seq\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[][] SYSTEM_MARKERS = {
+            "\"messageType\":\"JOIN\"".getBytes(StandardCharsets.UTF_8),
+            "\"messageType\":\"LEAVE\"".getBytes(StandardCharsets.UTF_8),
+            "\"messageType\":\"SYSTEM\"".getBytes(StandardCharsets.UTF_8)
+    };
+
+    private final SessionMessageSender sessionMessageSender;
+
+    @Value("${chat.websocket.slow-consumer.soft-lag-messages:200}")
+    private int softLagMessages;
+
+    @Value("${chat.websocket.slow-consumer.hard-lag-messages:1000}")
+    private int hardLagMessages;
+
+    @Value("${chat.websocket.slow-consumer.hard-lag-ms:10000}")
+    private long hardLagMs;
+
+    // drop | summarize
+    @Value("${chat.websocket.slow-consumer.shed-mode:summarize}")
+    private String shedMode;
+
+    private final Map<String, SessionTracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+
+    public SlowConsumerMonitor(@Lazy SessionMessageSender sessionMessageSender) {
+        this.sessionMessageSender = sessionMessageSender;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionTracker tracker = new SessionTracker(session);
+                trackers.put(session.getId(), tracker);
+                super.afterConnectionEstablished(new TrackingSession(session, tracker));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                trackers.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        SessionTracker tracker = sessionId != null ? trackers.get(sessionId) : null;
+        if (tracker == null || subscriptionId == null) {
+            return message;
+        }
+        if (tracker.closing) {
+            return null;
+        }
+
+        int pending = tracker.pendingCount.get();
+        if (pending >= hardLagMessages || tracker.oldestPendingMs() >= hardLagMs) {
+            disconnect(tracker);
+            return null;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (pending >= softLagMessages && isDroppable(destination, message.getPayload())) {
+            tracker.dropped.incrementAndGet();
+            tracker.skippedSinceNotice.incrementAndGet();
+            droppedFrames.incrementAndGet();
+            return null;
+        }
+
+        if (pending < softLagMessages && "summarize".equalsIgnoreCase(shedMode)) {
+            sendSkippedSummary(tracker, subscriptionId, destination);
+        }
+
+        tracker.admitted(seqOf(destination, message.getPayload()));
+        return message;
+    }
+
+    public List<SessionLagResponse> getWorstLaggingSessions(int limit) {
+        return trackers.values().stream()
+                .map(SessionTracker::toResponse)
+                .sorted(Comparator.comparingInt(SessionLagResponse::getPendingMessages).reversed()
+                        .thenComparing(Comparator.comparingLong(SessionLagResponse::getOldestPendingMs).reversed()))
+                .limit(limit)
+                .toList();
+    }
+
+    public int getSessionCount() {
+        return trackers.size();
+    }
+
+    public long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
+    public long getDisconnectCount() {
+        return disconnects.get();
+    }
+
+    private boolean isDroppable(String destination, Object payload) {
+        if (destination == null || !destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)
+                || !(payload instanceof byte[] json)) {
+            return false;
+        }
+        for (byte[] marker : SYSTEM_MARKERS) {
+            if (indexOf(json, marker) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendSkippedSummary(SessionTracker tracker, String subscriptionId, String destination) {
+        long skipped = tracker.skippedSinceNotice.getAndSet(0);
+        if (skipped == 0 || destination == null
+                || !destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)) {
+            return;
+        }
+
+        ChatMessageResponse summary = ChatMessageResponse.builder()
+                .roomId(destination.substring(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX.length()))
+                .message("네트워크 지연으로 " + skipped + "개의 메시지를 건너뛰었습니다.")
+                .senderId("SYSTEM")
+                .senderName("System")
+                .messageType(MessageType.SYSTEM)
+                .timestamp(LocalDateTime.now())
+                .build();
+        sessionMessageSender.send(tracker.session.getId(), subscriptionId, destination, summary, Map.of());
+    }
+
+    private void disconnect(SessionTracker tracker) {
+        if (tracker.closing) {
+            return;
+        }
+        tracker.closing = true;
+        disconnects.incrementAndGet();
+
+        // 아직 전송되지 못한 가장 오래된 방 메시지 바로 앞까지 받았다고 알려준다
+        // seq 를 알 수 없으면 클라이언트가 가진 마지막 seq 로 재개한다
+        long oldestSeq = tracker.oldestPendingSeq();
+        String reason = oldestSeq > 0 ? "slow-consumer;" + RESUME_SEQ_REASON + (oldestSeq - 1) : "slow-consumer";
+
+        log.warn("Disconnecting slow consumer {} (pending={}, oldest={}ms)",
+                tracker.session.getId(), tracker.pendingCount.get(), tracker.oldestPendingMs());
+        try {
+            // 버퍼에 쌓인 프레임 뒤에 줄 서지 않도록 원본 세션을 바로 닫는다
+            tracker.session.close(new CloseStatus(SLOW_CONSUMER_CLOSE_CODE, reason));
+        } catch (IOException e) {
+            log.error("Error closing slow consumer session {}: {}", tracker.session.getId(), e.getMessage());
+        }
+    }
+
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage textMessage) {
+            return textMessage.getPayload().startsWith("MESSAGE");
+        }
+        if (message instanceof BinaryMessage binaryMessage) {
+            ByteBuffer buffer = binaryMessage.getPayload();
+            if (buffer.remaining() < MESSAGE_COMMAND.length) {
+                return false;
+            }
+            for (int i = 0; i < MESSAGE_COMMAND.length; i++) {
+                if (buffer.get(buffer.position() + i) != MESSAGE_COMMAND[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // 방 메시지(또는 배치의 첫 메시지) JSON 에서 seq 를 읽는다. 없으면 -1
+    private static long seqOf(String destination, Object payload) {
+        if (destination == null || !destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)
+                || !(payload instanceof byte[] json)) {
+            return -1;
+        }
+        int index = indexOf(json, SEQ_FIELD);
+        if (index < 0) {
+            return -1;
+        }
+        long seq = 0;
+        boolean digits = false;
+        for (int i = index + SEQ_FIELD.length; i < json.length && json[i] >= '0' && json[i] <= '9'; i++) {
+            seq = seq * 10 + (json[i] - '0');
+            digits = true;
+        }
+        return digits ? seq : -1;
+    }
+
+    private static int indexOf(byte[] source, byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class SessionTracker {
+
+        private final WebSocketSession session;
+        // 전송 대기 중인 MESSAGE 프레임, 오래된 순
+        private final Deque<PendingFrame> pending = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong skippedSinceNotice = new AtomicLong();
+        private volatile boolean closing;
+
+        private SessionTracker(WebSocketSession session) {
+            this.session = session;
+        }
+
+        void admitted(long seq) {
+            pending.addLast(new PendingFrame(System.currentTimeMillis(), seq));
+            pendingCount.incrementAndGet();
+        }
+
+        void sent() {
+            if (pending.pollFirst() != null) {
+                pendingCount.decrementAndGet();
+            }
+        }
+
+        long oldestPendingSeq() {
+            for (PendingFrame frame : pending) {
+                if (frame.seq > 0) {
+                    return frame.seq;
+                }
+            }
+            return -1;
+        }
+
+        long oldestPendingMs() {
+            PendingFrame oldest = pending.peekFirst();
+            return oldest != null ? System.currentTimeMillis() - oldest.since : 0;
+        }
+
+        SessionLagResponse toResponse() {
+            return SessionLagResponse.builder()
+                    .sessionId(session.getId())
+                    .pendingMessages(pendingCount.get())
+                    .oldestPendingMs(oldestPendingMs())
+                    .droppedMessages(dropped.get())
+                    .build();
+        }
+    }
+
+    private static final class PendingFrame {
+
+        // enqueue 시각(epoch ms)
+        private final long since;
+        // 방 메시지의 seq, 없으면 -1
+        private final long seq;
+
+        private PendingFrame(long since, long seq) {
+            this.since = since;
+            this.seq = seq;
+        }
+    }
+
+    // 실제 소켓 전송이 끝난 MESSAGE 프레임을 집계한다
+    private static final class TrackingSession extends WebSocketSessionDecorator {
+
+        private final SessionTracker tracker;
+
+        private TrackingSession(WebSocketSession session, SessionTracker tracker) {
+            super(session);
+            this.tracker = tracker;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            if (isMessageFrame(message)) {
+                tracker.sent();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.domain.chat.service.CompactChatMessageEncoder;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import com.example.chatapp.global.security.interceptor.SimpleHandshakeInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP CONNECT 의 accept-format 헤더로 wire format 을 협상하고,
+ * compact 포맷을 선택한 세션에는 /sub/room/* 메시지를 CBOR 로 변환해 보낸다.
+ * inbound/outbound 채널 양쪽에 등록된다.
+ *
+ * SockJS 는 텍스트 프레임만 지원하므로 compact 포맷은 네이티브 WebSocket 전송(/ws-chat/websocket)에서만 허용된다.
+ * CBOR 프레임은 바이너리 프레임으로 나가도록 content-type 을 application/octet-stream 으로,
+ * wire-format 헤더를 cbor 로 설정한다.
+ */
+@Slf4j
+@Component
+public class WireFormatChannelInterceptor implements ChannelInterceptor {
+
+    public static final String ACCEPT_FORMAT_HEADER = "accept-format";
+    public static final String CBOR_FORMAT = "cbor";
+    public static final String WIRE_FORMAT_HEADER = "wire-format";
+
+    private final CompactChatMessageEncoder compactChatMessageEncoder;
+
+    // compact 포맷을 협상한 세션
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    // 브로커는 모든 구독자에게 같은 페이로드 byte[] 를 넘기므로, 인스턴스 기준으로 변환 결과를 재사용한다
+    // (weakKeys 는 identity 비교)
+    private final Cache<byte[], byte[]> encodedPayloads = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1024)
+            .build();
+
+    public WireFormatChannelInterceptor(CompactChatMessageEncoder compactChatMessageEncoder) {
+        this.compactChatMessageEncoder = compactChatMessageEncoder;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.CONNECT) {
+            negotiate(message);
+            return message;
+        }
+        if (messageType == SimpMessageType.MESSAGE) {
+            return encodeForSession(message);
+        }
+        return message;
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        cborSessions.remove(event.getSessionId());
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.CONNECT && accessor.getCommand() != StompCommand.STOMP) {
+            return;
+        }
+        if (!CBOR_FORMAT.equalsIgnoreCase(accessor.getFirstNativeHeader(ACCEPT_FORMAT_HEADER))) {
+            return;
+        }
+
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        if (sessionAttributes == null
+                || !Boolean.TRUE.equals(sessionAttributes.get(SimpleHandshakeInterceptor.NATIVE_WEBSOCKET_ATTRIBUTE))) {
+            log.debug("Session {} requested compact wire format over SockJS, using JSON", accessor.getSessionId());
+            return;
+        }
+        cborSessions.add(accessor.getSessionId());
+        log.debug("Session {} negotiated compact wire format", accessor.getSessionId());
+    }
+
+    private Message<?> encodeForSession(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || !cborSessions.contains(sessionId)) {
+            return message;
+        }
+
+        // 구독 id 가 없는 MESSAGE 는 클라이언트가 보낸 inbound SEND 이다
+        if (SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()) == null) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType == null || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(MimeType.valueOf(contentType.toString()))) {
+            return message;
+        }
+
+        try {
+            byte[] compact = encodedPayloads.get(json, compactChatMessageEncoder::encodeFromJson);
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(WIRE_FORMAT_HEADER, CBOR_FORMAT);
+            return MessageBuilder.createMessage(compact, accessor.getMessageHeaders());
+        } catch (Exception e) {
+            log.error("Error encoding compact message for session {}: {}", sessionId, e.getMessage());
+            return message;
+        }
+    }
+
+    public boolean isCompact(String sessionId) {
+        return cborSessions.contains(sessionId);
+    }
+}
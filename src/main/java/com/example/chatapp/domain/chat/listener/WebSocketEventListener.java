@@ -1,22 +1,32 @@
 package com.example.chatapp.domain.chat.listener;
 
 import com.example.chatapp.domain.chat.service.ChatService;
+import com.example.chatapp.domain.chat.service.RoomPresenceEngine;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class WebSocketEventListener {
 
+    private static final String LAST_SEQ_HEADER = "last-seq";
+
     private final ChatService chatService;
+    private final RoomPresenceEngine roomPresenceEngine;
 
+    // 입장 처리가 다른 connect 리스너(핸드셰이크 허가 반납 등)보다 먼저 끝나도록 한다
     @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         
@@ -27,8 +37,23 @@ public class WebSocketEventListener {
             log.info("WebSocket connection established - User: {}, Room: {}, Session: {}", 
                     userId, roomId, headerAccessor.getSessionId());
             
-            chatService.handleUserJoin(roomId, userId);
+            // 입장 처리는 실제 상태 전환(첫 세션, 유예 만료 후 재입장)일 때만 실행된다
+            roomPresenceEngine.sessionConnected(roomId, userId, headerAccessor.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void handleWebSocketSubscribeListener(SessionSubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        
+        String destination = headerAccessor.getDestination();
+        if (destination == null || !destination.startsWith(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX)) {
+            return;
         }
+        
+        String roomId = destination.substring(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX.length());
+        chatService.sendRecentMessages(roomId, headerAccessor.getSessionId(), headerAccessor.getSubscriptionId(),
+                parseLastSeq(headerAccessor.getFirstNativeHeader(LAST_SEQ_HEADER)));
     }
 
     @EventListener
@@ -42,7 +67,19 @@ public class WebSocketEventListener {
             log.info("WebSocket connection closed - User: {}, Room: {}, Session: {}", 
                     userId, roomId, headerAccessor.getSessionId());
             
-            chatService.handleUserLeave(roomId, userId);
+            roomPresenceEngine.sessionDisconnected(roomId, userId, headerAccessor.getSessionId());
+        }
+    }
+
+    private Long parseLastSeq(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid last-seq header: {}", value);
+            return null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,437 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 오래된 메시지를 보관하는 cold tier.
+ *
+ * 방마다 디렉터리를 두고 append-only 세그먼트 파일(NNNNNN.seg)에 메시지 블록(block-size 개씩 JSON 배열을 deflate 압축)을 이어 쓴다.
+ * 세그먼트마다 sparse 인덱스 파일(NNNNNN.idx)에 블록당 고정 길이 엔트리
+ * [첫 timestamp(8), 마지막 timestamp(8), offset(8), length(4), count(4)] 를 기록하므로
+ * 시간 범위 조회는 인덱스로 블록을 고른 뒤 해당 블록만 압축 해제한다.
+ * 세그먼트는 읽기 전용으로 memory-map 해서 읽는다.
+ *
+ * 쓰기는 아카이버(리더 노드 하나)만 하고, 다른 노드는 공유 디렉터리를 읽기만 한다.
+ * 캐시한 블록 인덱스는 읽을 때마다 마지막 인덱스 파일의 크기와 다음 세그먼트의 존재를 확인해
+ * 다른 노드가 블록을 추가했으면 다시 읽으므로, Mongo 에서 막 삭제된 메시지가 아카이브에서도 안 보이는 구간이 생기지 않는다.
+ * 아카이브된 메시지는 텍스트 검색 대상이 아니다 (검색은 hot tier 만 본다).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageArchive {
+
+    private static final int INDEX_ENTRY_BYTES = 32;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final Comparator<ChatMessage> OLDEST_FIRST = Comparator
+            .comparing(ChatMessage::getTimestamp)
+            .thenComparing(ChatMessage::getId);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.archive.directory:./data/archive}")
+    private String directory;
+
+    @Value("${chat.archive.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    // roomId -> 블록 인덱스 (오래된 순)
+    private Cache<String, BlockIndex> blockIndexes;
+
+    // 세그먼트 파일 -> memory-map
+    private Cache<Path, MappedByteBuffer> mappedSegments;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() {
+        root = Paths.get(directory).toAbsolutePath();
+        // 최신 여부는 읽을 때 파일 크기로 확인하므로 오래 쓰지 않는 방만 내보낸다
+        blockIndexes = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        mappedSegments = Caffeine.newBuilder()
+                .maximumSize(256)
+                .build();
+        if (enabled) {
+            log.info("Chat message archive enabled (directory={})", root);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 오래된 순으로 정렬된 메시지를 blockSize 개씩 압축 블록으로 현재 세그먼트 끝에 추가한다.
+     * 데이터를 먼저 쓰고 fsync 한 뒤 인덱스 엔트리를 쓰므로, 중간에 죽어도 인덱스에 없는 꼬리 데이터만 남는다.
+     * 인덱스 엔트리를 쓰다 죽어 남은 조각은 다음 엔트리를 쓰기 전에 잘라 낸다. 그대로 이어 쓰면 이후 엔트리가 모두 어긋난다.
+     */
+    public synchronized void append(String roomId, List<ChatMessage> messages, int blockSize) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Path roomDir = roomDirectory(roomId);
+        Files.createDirectories(roomDir);
+        Path segment = activeSegment(roomDir);
+
+        for (int from = 0; from < messages.size(); from += blockSize) {
+            List<ChatMessage> block = messages.subList(from, Math.min(from + blockSize, messages.size()));
+            byte[] compressed = compress(objectMapper.writeValueAsBytes(block));
+
+            if (Files.exists(segment) && Files.size(segment) + compressed.length > segmentMaxBytes) {
+                segment = nextSegment(roomDir, segment);
+            }
+
+            long offset;
+            try (FileChannel data = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                offset = data.size();
+                data.write(ByteBuffer.wrap(compressed), offset);
+                data.force(false);
+            }
+
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES)
+                    .putLong(toEpochMillis(block.get(0).getTimestamp()))
+                    .putLong(toEpochMillis(block.get(block.size() - 1).getTimestamp()))
+                    .putLong(offset)
+                    .putInt(compressed.length)
+                    .putInt(block.size())
+                    .flip();
+            try (FileChannel index = FileChannel.open(indexPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long complete = index.size() / INDEX_ENTRY_BYTES * INDEX_ENTRY_BYTES;
+                if (complete != index.size()) {
+                    log.warn("Truncating torn archive index entry in {} ({} bytes)",
+                            indexPath(segment), index.size() - complete);
+                    index.truncate(complete);
+                }
+                index.write(entry, complete);
+                index.force(false);
+            }
+        }
+        blockIndexes.invalidate(roomId);
+    }
+
+    /**
+     * 아카이브된 가장 최근 메시지. 재실행 시 이미 옮긴 메시지를 다시 쓰지 않기 위한 기준점.
+     */
+    public ChatMessage lastArchived(String roomId) {
+        List<BlockEntry> entries = blockIndex(roomId);
+        if (entries.isEmpty()) {
+            return null;
+        }
+        List<ChatMessage> messages = readBlock(entries.get(entries.size() - 1));
+        return messages.isEmpty() ? null : messages.get(messages.size() - 1);
+    }
+
+    /**
+     * (timestamp, id) 커서보다 오래된 메시지를 최신순으로 limit 개. cursorTimestamp 가 null 이면 가장 최근부터.
+     */
+    public List<ChatMessage> findPageBefore(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        List<ChatMessage> page = new ArrayList<>(limit);
+        if (!enabled || limit <= 0) {
+            return page;
+        }
+        long cursorMillis = cursorTimestamp != null ? toEpochMillis(cursorTimestamp) : Long.MAX_VALUE;
+        List<BlockEntry> entries = blockIndex(roomId);
+        for (int i = entries.size() - 1; i >= 0 && page.size() < limit; i--) {
+            BlockEntry entry = entries.get(i);
+            if (entry.getFirstMillis() > cursorMillis) {
+                continue;
+            }
+            List<ChatMessage> messages = readBlock(entry);
+            for (int j = messages.size() - 1; j >= 0 && page.size() < limit; j--) {
+                ChatMessage message = messages.get(j);
+                if (cursorTimestamp == null || isBefore(message, cursorTimestamp, cursorId)) {
+                    page.add(message);
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * (timestamp, id) 커서보다 최근 메시지를 오래된 순으로 limit 개.
+     */
+    public List<ChatMessage> findPageAfter(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        List<ChatMessage> page = new ArrayList<>(limit);
+        if (!enabled || limit <= 0) {
+            return page;
+        }
+        long cursorMillis = toEpochMillis(cursorTimestamp);
+        for (BlockEntry entry : blockIndex(roomId)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (entry.getLastMillis() < cursorMillis) {
+                continue;
+            }
+            for (ChatMessage message : readBlock(entry)) {
+                if (isAfter(message, cursorTimestamp, cursorId)) {
+                    page.add(message);
+                    if (page.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    public List<ChatMessage> findBetween(String roomId, LocalDateTime from, LocalDateTime to) {
+        List<ChatMessage> result = new ArrayList<>();
+        if (!enabled) {
+            return result;
+        }
+        long fromMillis = toEpochMillis(from);
+        long toMillis = toEpochMillis(to);
+        for (BlockEntry entry : blockIndex(roomId)) {
+            if (entry.getLastMillis() < fromMillis || entry.getFirstMillis() > toMillis) {
+                continue;
+            }
+            for (ChatMessage message : readBlock(entry)) {
+                if (!message.getTimestamp().isBefore(from) && !message.getTimestamp().isAfter(to)) {
+                    result.add(message);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 아카이브에 남은 가장 최근 timestamp. 없으면 null.
+     */
+    public LocalDateTime newestArchivedTimestamp(String roomId) {
+        if (!enabled) {
+            return null;
+        }
+        List<BlockEntry> entries = blockIndex(roomId);
+        return entries.isEmpty() ? null : fromEpochMillis(entries.get(entries.size() - 1).getLastMillis());
+    }
+
+    private List<BlockEntry> blockIndex(String roomId) {
+        BlockIndex cached = blockIndexes.getIfPresent(roomId);
+        if (cached == null || isStale(roomId, cached)) {
+            cached = loadBlockIndex(roomId);
+            blockIndexes.put(roomId, cached);
+        }
+        return cached.getEntries();
+    }
+
+    // 다른 노드의 append 는 마지막 인덱스 파일을 늘리거나 다음 세그먼트의 인덱스를 만든다
+    private boolean isStale(String roomId, BlockIndex cached) {
+        Path roomDir = roomDirectory(roomId);
+        if (cached.getLastIndex() == null) {
+            return Files.isDirectory(roomDir);
+        }
+        try {
+            return Files.size(cached.getLastIndex()) != cached.getLastIndexBytes()
+                    || Files.exists(indexPath(nextSegment(roomDir, cached.getLastSegment())));
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private BlockIndex loadBlockIndex(String roomId) {
+        Path roomDir = roomDirectory(roomId);
+        if (!Files.isDirectory(roomDir)) {
+            return new BlockIndex(List.of(), null, null, 0);
+        }
+        List<BlockEntry> entries = new ArrayList<>();
+        Path lastSegment = null;
+        Path lastIndex = null;
+        long lastIndexBytes = 0;
+        for (Path segment : listSegments(roomDir)) {
+            Path index = indexPath(segment);
+            if (!Files.exists(index)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+                lastSegment = segment;
+                lastIndex = index;
+                lastIndexBytes = channel.size();
+                // 마지막 엔트리를 쓰는 중이면 완성된 엔트리까지만 읽는다
+                long complete = channel.size() / INDEX_ENTRY_BYTES * INDEX_ENTRY_BYTES;
+                if (complete == 0) {
+                    continue;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, complete);
+                while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+                    entries.add(new BlockEntry(segment, buffer.getLong(), buffer.getLong(),
+                            buffer.getLong(), buffer.getInt(), buffer.getInt()));
+                }
+            } catch (IOException e) {
+                log.error("Error reading archive index {}: {}", index, e.getMessage());
+            }
+        }
+        return new BlockIndex(entries, lastSegment, lastIndex, lastIndexBytes);
+    }
+
+    private List<ChatMessage> readBlock(BlockEntry entry) {
+        try {
+            MappedByteBuffer mapped = mappedSegments.getIfPresent(entry.getSegment());
+            if (mapped == null || mapped.capacity() < entry.getOffset() + entry.getLength()) {
+                // 활성 세그먼트는 계속 자라므로 필요한 범위를 넘어서면 다시 map 한다
+                try (FileChannel channel = FileChannel.open(entry.getSegment(), StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mappedSegments.put(entry.getSegment(), mapped);
+            }
+            byte[] compressed = new byte[entry.getLength()];
+            mapped.slice((int) entry.getOffset(), entry.getLength()).get(compressed);
+
+            List<ChatMessage> messages = objectMapper.readValue(decompress(compressed), new TypeReference<>() {});
+            messages.sort(OLDEST_FIRST);
+            return messages;
+        } catch (IOException | DataFormatException e) {
+            log.error("Error reading archive block {}@{}: {}", entry.getSegment(), entry.getOffset(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Path roomDirectory(String roomId) {
+        return root.resolve(roomId.replaceAll("[^A-Za-z0-9_-]", "_"));
+    }
+
+    private List<Path> listSegments(Path roomDir) {
+        try (Stream<Path> files = Files.list(roomDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path activeSegment(Path roomDir) {
+        List<Path> segments = listSegments(roomDir);
+        return segments.isEmpty() ? roomDir.resolve(segmentName(1)) : segments.get(segments.size() - 1);
+    }
+
+    private Path nextSegment(Path roomDir, Path current) {
+        String name = current.getFileName().toString();
+        int number = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        return roomDir.resolve(segmentName(number + 1));
+    }
+
+    private static String segmentName(int number) {
+        return String.format("%06d%s", number, SEGMENT_SUFFIX);
+    }
+
+    private static Path indexPath(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] compressed) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated archive block");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static boolean isBefore(ChatMessage message, LocalDateTime timestamp, String id) {
+        int cmp = message.getTimestamp().compareTo(timestamp);
+        return cmp < 0 || (cmp == 0 && id != null && message.getId().compareTo(id) < 0);
+    }
+
+    private static boolean isAfter(ChatMessage message, LocalDateTime timestamp, String id) {
+        int cmp = message.getTimestamp().compareTo(timestamp);
+        return cmp > 0 || (cmp == 0 && id != null && message.getId().compareTo(id) > 0);
+    }
+
+    // 읽은 시점의 마지막 인덱스 파일과 크기를 함께 들고 있어 다른 노드의 append 를 알아챈다
+    @Getter
+    @AllArgsConstructor
+    private static final class BlockIndex {
+        private final List<BlockEntry> entries;
+        private final Path lastSegment;
+        private final Path lastIndex;
+        private final long lastIndexBytes;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class BlockEntry {
+        private final Path segment;
+        private final long firstMillis;
+        private final long lastMillis;
+        private final long offset;
+        private final int length;
+        private final int count;
+    }
+}
@@ -0,0 +1,515 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.ChatSearchHit;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.entity.ChatMessageBucket;
+import com.example.chatapp.domain.chat.entity.ChatMessageSearchEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * 시간 구간(bucket) 단위 메시지 저장소.
+ *
+ * chat.storage.layout=bucket 이면 메시지를 (roomId, bucket-minutes 구간) 문서 하나의 배열에 모아 저장한다.
+ * 방 기록을 읽을 때 메시지 수천 건 대신 구간 문서 몇 개만 읽으며,
+ * 방별 구간 목록은 메모리에 캐시해 어떤 문서를 읽을지 DB 조회 없이 정한다.
+ * 한 구간 문서의 메시지 수는 max-messages 로 제한하고, 가득 차면 같은 구간의 다음 part 문서(roomId:start:N)로 넘어가므로
+ * 구간 폭과 관계없이 문서가 16MB 제한에 닿지 않는다.
+ * 검색은 메시지 단위 점수와 페이지가 필요하므로 메시지마다 ChatMessageSearchEntry 를 따로 기록한다.
+ * 따라서 구간 저장이 줄이는 것은 기록 조회와 쓰기의 문서 수이고, 검색용 문서와 텍스트 인덱스는 document 저장 방식과 같은 크기로 쌓인다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageBucketStore {
+
+    public static final String LAYOUT_BUCKET = "bucket";
+
+    private static final int DUPLICATE_KEY = 11000;
+    // seq 이후 조회에서 part 문서를 한 번에 가져오는 수
+    private static final int SEQ_SCAN_BATCH_SIZE = 4;
+
+    private static final Comparator<ChatMessage> NEWEST_FIRST = Comparator
+            .comparing(ChatMessage::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ChatMessage::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final MongoTemplate mongoTemplate;
+
+    // document: 메시지당 문서 (기본), bucket: 구간 문서
+    @Value("${chat.storage.layout:document}")
+    private String layout;
+
+    @Value("${chat.storage.bucket.width-minutes:60}")
+    private long bucketWidthMinutes;
+
+    @Value("${chat.storage.bucket.max-rooms:10000}")
+    private long maxCachedRooms;
+
+    // 구간 문서 하나에 담는 최대 메시지 수. 메시지 최대 길이 기준 최악의 경우에도 16MB 보다 충분히 작게 잡는다
+    @Value("${chat.storage.bucket.max-messages:2000}")
+    private int maxMessagesPerBucket;
+
+    // roomId -> 존재하는 구간 시작 시각 (오름차순)
+    private Cache<String, NavigableSet<LocalDateTime>> bucketIndex;
+
+    // roomId:bucketStart -> 지금 채우고 있는 part 번호
+    private Cache<String, Integer> currentParts;
+
+    @PostConstruct
+    public void init() {
+        bucketIndex = Caffeine.newBuilder()
+                .maximumSize(maxCachedRooms)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        currentParts = Caffeine.newBuilder()
+                .maximumSize(maxCachedRooms)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        if (isEnabled()) {
+            log.info("Chat message bucket storage enabled (width={}min, max {} messages per document)",
+                    bucketWidthMinutes, maxMessagesPerBucket);
+        }
+    }
+
+    public boolean isEnabled() {
+        return LAYOUT_BUCKET.equalsIgnoreCase(layout);
+    }
+
+    /**
+     * 메시지를 구간 문서에 $push 로 추가한다. 구간마다 max-messages 이하 묶음 하나를 upsert 로 만들어 unordered bulk 로 실행하며,
+     * 저장하지 못한 메시지를 돌려준다. 첫 bulk 실행 자체가 실패하면 예외를 그대로 던진다.
+     *
+     * upsert 조건에 남은 자리(count)를 넣어 두므로, 가득 찬 part 에는 같은 _id 로 insert 를 시도하다 중복 키 오류가 난다.
+     * 그 묶음은 다음 part 로 옮겨 다시 실행하며, 모든 묶음이 저장되거나 실패할 때까지 반복한다.
+     * 한 구간에 max-messages 보다 많은 메시지가 한꺼번에 오면 미리 나눈 묶음을 이어지는 part 에 하나씩 배정한다.
+     *
+     * 같은 메시지를 다시 넘겨도(부분 실패나 응답 유실 뒤의 재시도) 두 번 들어가지 않도록, upsert 조건에 묶음의 메시지 id 가
+     * 문서에 없어야 한다는 조건도 넣는다. 이미 들어간 메시지가 있으면 중복 키 오류가 나고, 그때 구간에 저장된 id 를 확인해
+     * 남은 메시지만 다음 part 로 넘긴다.
+     */
+    public List<ChatMessage> append(List<ChatMessage> messages) {
+        Map<String, List<ChatMessage>> byBucket = new LinkedHashMap<>();
+        for (ChatMessage message : messages) {
+            if (message.getId() == null) {
+                message.setId(new ObjectId().toHexString());
+            }
+            byBucket.computeIfAbsent(bucketKey(message.getRoomId(), bucketStart(message.getTimestamp())),
+                    key -> new ArrayList<>()).add(message);
+        }
+
+        List<Chunk> pending = new ArrayList<>();
+        byBucket.forEach((key, group) -> {
+            String roomId = group.get(0).getRoomId();
+            LocalDateTime start = bucketStart(group.get(0).getTimestamp());
+            int part = currentPart(key, roomId, start);
+            for (int from = 0; from < group.size(); from += maxMessagesPerBucket) {
+                pending.add(new Chunk(roomId, start, part++,
+                        group.subList(from, Math.min(from + maxMessagesPerBucket, group.size()))));
+            }
+        });
+
+        List<ChatMessage> failed = new ArrayList<>();
+        // 중복 키 오류가 난 묶음은 항상 더 큰 part 로 넘어가므로, 빈 part 에 닿는 순간 저장되어 반복이 끝난다
+        for (int round = 0; !pending.isEmpty(); round++) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessageBucket.class);
+            for (Chunk chunk : pending) {
+                Update update = new Update()
+                        .push("messages").each(chunk.messages.stream().map(this::toEmbedded).toArray())
+                        .inc("count", chunk.messages.size())
+                        .setOnInsert("roomId", chunk.roomId)
+                        .setOnInsert("bucketStart", chunk.start)
+                        .setOnInsert("part", chunk.part);
+                Long minSeq = chunk.minSeq();
+                if (minSeq != null) {
+                    update.min("minSeq", minSeq).max("maxSeq", chunk.maxSeq());
+                }
+                bulk.upsert(Query.query(Criteria.where("_id").is(bucketId(chunk.roomId, chunk.start, chunk.part))
+                        .and("count").lte(maxMessagesPerBucket - chunk.messages.size())
+                        .and("messages.id").nin(chunk.messageIds())), update);
+            }
+
+            Set<Integer> errored = new HashSet<>();
+            List<Chunk> rollover = new ArrayList<>();
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                int errors = 0;
+                for (BulkWriteError error : e.getErrors()) {
+                    Chunk chunk = pending.get(error.getIndex());
+                    errored.add(error.getIndex());
+                    if (error.getCode() == DUPLICATE_KEY) {
+                        Chunk next = withoutStored(chunk);
+                        if (next != null) {
+                            rollover.add(next);
+                        } else {
+                            appended(chunk);
+                        }
+                    } else {
+                        failed.addAll(chunk.messages);
+                        errors++;
+                    }
+                }
+                if (errors > 0) {
+                    log.error("Partially appended chat message buckets: {} errors", errors);
+                }
+            } catch (RuntimeException e) {
+                // 앞 round 에서 저장된 묶음이 있으므로 남은 묶음만 실패로 돌려준다
+                if (round == 0) {
+                    throw e;
+                }
+                pending.forEach(chunk -> failed.addAll(chunk.messages));
+                log.error("Error appending chat message buckets after rollover: {}", e.getMessage());
+                break;
+            }
+
+            for (int i = 0; i < pending.size(); i++) {
+                if (!errored.contains(i)) {
+                    appended(pending.get(i));
+                }
+            }
+            pending = rollover;
+        }
+
+        indexForSearch(messages, failed);
+        return failed;
+    }
+
+    public List<ChatMessage> findPageBefore(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        NavigableSet<LocalDateTime> starts = bucketStarts(roomId);
+        Iterable<LocalDateTime> candidates = cursorTimestamp != null
+                ? starts.headSet(bucketStart(cursorTimestamp), true).descendingSet()
+                : starts.descendingSet();
+
+        List<ChatMessage> page = new ArrayList<>(limit);
+        for (LocalDateTime start : candidates) {
+            List<ChatMessage> messages = loadBucket(roomId, start);
+            messages.sort(NEWEST_FIRST);
+            for (ChatMessage message : messages) {
+                if (cursorTimestamp == null || isBefore(message, cursorTimestamp, cursorId)) {
+                    page.add(message);
+                    if (page.size() == limit) {
+                        return page;
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    public List<ChatMessage> findPageAfter(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        NavigableSet<LocalDateTime> starts = bucketStarts(roomId);
+        List<ChatMessage> page = new ArrayList<>(limit);
+        for (LocalDateTime start : starts.tailSet(bucketStart(cursorTimestamp), true)) {
+            List<ChatMessage> messages = loadBucket(roomId, start);
+            messages.sort(NEWEST_FIRST.reversed());
+            for (ChatMessage message : messages) {
+                if (isAfter(message, cursorTimestamp, cursorId)) {
+                    page.add(message);
+                    if (page.size() == limit) {
+                        return page;
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    public List<ChatMessage> findBetween(String roomId, LocalDateTime from, LocalDateTime to) {
+        List<ChatMessage> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        for (LocalDateTime start : bucketStarts(roomId).subSet(bucketStart(from), true, to, true)) {
+            for (ChatMessage message : loadBucket(roomId, start)) {
+                if (!message.getTimestamp().isBefore(from) && !message.getTimestamp().isAfter(to)) {
+                    result.add(message);
+                }
+            }
+        }
+        result.sort(NEWEST_FIRST.reversed());
+        return result;
+    }
+
+    /**
+     * seq 이후 메시지를 오래된 순으로 limit 개. part 문서마다 담긴 seq 범위(minSeq, maxSeq)를 기록해 두므로
+     * maxSeq 가 seq 보다 큰 part 만 minSeq 순으로 읽는다. limit 개를 모은 뒤에는 다음 part 의 minSeq 가
+     * 모은 것 중 가장 큰 seq 보다 크면 더 작은 seq 가 남아 있을 수 없으므로 거기서 멈춘다.
+     */
+    public List<ChatMessage> findAfterSeq(String roomId, long seq, int limit) {
+        Comparator<ChatMessage> bySeq = Comparator.comparing(ChatMessage::getSeq);
+        Query query = Query.query(Criteria.where("roomId").is(roomId).and("maxSeq").gt(seq))
+                .with(Sort.by(Sort.Direction.ASC, "minSeq"))
+                .cursorBatchSize(SEQ_SCAN_BATCH_SIZE);
+        List<ChatMessage> result = new ArrayList<>();
+        try (Stream<ChatMessageBucket> parts = mongoTemplate.stream(query, ChatMessageBucket.class)) {
+            Iterator<ChatMessageBucket> iterator = parts.iterator();
+            while (iterator.hasNext()) {
+                ChatMessageBucket part = iterator.next();
+                if (result.size() == limit && part.getMinSeq() > result.get(limit - 1).getSeq()) {
+                    break;
+                }
+                for (ChatMessage message : part.getMessages()) {
+                    if (message.getSeq() != null && message.getSeq() > seq) {
+                        message.setRoomId(roomId);
+                        result.add(message);
+                    }
+                }
+                result.sort(bySeq);
+                if (result.size() > limit) {
+                    result = new ArrayList<>(result.subList(0, limit));
+                }
+            }
+        }
+        return result;
+    }
+
+    public void deleteBefore(String roomId, LocalDateTime timestamp) {
+        LocalDateTime boundary = bucketStart(timestamp);
+        mongoTemplate.remove(Query.query(Criteria.where("roomId").is(roomId).and("bucketStart").lt(boundary)),
+                ChatMessageBucket.class);
+        // 경계 구간은 문서(모든 part)를 남기고 오래된 원소만 제거한 뒤, count 를 남은 배열 크기로 다시 맞춘다.
+        // minSeq/maxSeq 는 넓어진 채로 두며, 조회 범위를 좁히는 용도라 그래도 결과는 같다
+        Query boundaryQuery = Query.query(Criteria.where("roomId").is(roomId).and("bucketStart").is(boundary));
+        mongoTemplate.updateMulti(boundaryQuery,
+                new Update().pull("messages", Query.query(Criteria.where("timestamp").lt(timestamp)).getQueryObject()),
+                ChatMessageBucket.class);
+        mongoTemplate.updateMulti(boundaryQuery,
+                AggregationUpdate.update().set("count").toValue(ArrayOperators.Size.lengthOfArray("messages")),
+                ChatMessageBucket.class);
+        mongoTemplate.remove(Query.query(Criteria.where("roomId").is(roomId).and("timestamp").lt(timestamp)),
+                ChatMessageSearchEntry.class);
+        bucketIndex.invalidate(roomId);
+    }
+
+    /**
+     * 메시지 단위 검색 문서를 텍스트 점수 순으로 찾는다. document 저장 방식과 같은 점수, 형태소 처리, 페이지 의미를 갖는다.
+     */
+    public List<ChatSearchHit> searchText(String roomId, String text, int skip, int limit, Duration maxTime) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .addCriteria(Criteria.where("roomId").is(roomId))
+                // 점수가 같은 메시지끼리도 순서를 고정해 skip 페이지가 겹치거나 빠지지 않게 한다
+                .with(Sort.by(Sort.Direction.DESC, "id"))
+                .skip(skip)
+                .limit(limit)
+                .maxTime(maxTime);
+        return mongoTemplate.find(query, ChatSearchHit.class,
+                mongoTemplate.getCollectionName(ChatMessageSearchEntry.class));
+    }
+
+    // 검색 문서는 구간 저장에 성공한 메시지만 기록한다. 재시도로 이미 있는 문서는 무시하고, 실패해도 메시지 저장은 유효하다
+    private void indexForSearch(List<ChatMessage> messages, List<ChatMessage> failed) {
+        Set<String> failedIds = new HashSet<>();
+        failed.forEach(message -> failedIds.add(message.getId()));
+        List<ChatMessageSearchEntry> entries = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            if (!failedIds.contains(message.getId())) {
+                entries.add(ChatMessageSearchEntry.builder()
+                        .id(message.getId())
+                        .roomId(message.getRoomId())
+                        .seq(message.getSeq())
+                        .message(message.getMessage())
+                        .senderId(message.getSenderId())
+                        .senderName(message.getSenderName())
+                        .messageType(message.getMessageType())
+                        .timestamp(message.getTimestamp())
+                        .build());
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessageSearchEntry.class)
+                    .insert(entries)
+                    .execute();
+        } catch (BulkOperationException e) {
+            long errors = e.getErrors().stream().filter(error -> error.getCode() != DUPLICATE_KEY).count();
+            if (errors > 0) {
+                log.error("Error indexing chat messages for search: {} errors", errors);
+            }
+        } catch (Exception e) {
+            log.error("Error indexing chat messages for search: {}", e.getMessage());
+        }
+    }
+
+    private NavigableSet<LocalDateTime> bucketStarts(String roomId) {
+        NavigableSet<LocalDateTime> starts = bucketIndex.get(roomId, id -> {
+            Query query = Query.query(Criteria.where("roomId").is(id));
+            query.fields().include("bucketStart");
+            NavigableSet<LocalDateTime> loaded = new ConcurrentSkipListSet<>();
+            mongoTemplate.find(query, ChatMessageBucket.class).forEach(bucket -> loaded.add(bucket.getBucketStart()));
+            return loaded;
+        });
+
+        // 다른 노드가 새로 만든 구간은 현재(또는 직전) 구간뿐이므로, 캐시에 없는 것만 한 번의 조회로 확인한다.
+        // 확인 결과는 캐시에 넣지 않는다. 캐시는 로드 시점과 이 노드의 append 성공으로만 바뀐다
+        LocalDateTime current = bucketStart(LocalDateTime.now());
+        List<LocalDateTime> unknown = new ArrayList<>(2);
+        for (LocalDateTime start : List.of(current.minusMinutes(bucketWidthMinutes), current)) {
+            if (!starts.contains(start)) {
+                unknown.add(start);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return starts;
+        }
+        Query probe = Query.query(Criteria.where("roomId").is(roomId).and("bucketStart").in(unknown));
+        probe.fields().include("bucketStart");
+        List<ChatMessageBucket> found = mongoTemplate.find(probe, ChatMessageBucket.class);
+        if (found.isEmpty()) {
+            return starts;
+        }
+        NavigableSet<LocalDateTime> merged = new TreeSet<>(starts);
+        found.forEach(bucket -> merged.add(bucket.getBucketStart()));
+        return merged;
+    }
+
+    // 구간의 모든 part 를 읽어 하나의 목록으로 합친다
+    private List<ChatMessage> loadBucket(String roomId, LocalDateTime start) {
+        Query query = Query.query(Criteria.where("roomId").is(roomId).and("bucketStart").is(start));
+        List<ChatMessage> messages = new ArrayList<>();
+        for (ChatMessageBucket bucket : mongoTemplate.find(query, ChatMessageBucket.class)) {
+            if (bucket.getMessages() != null) {
+                messages.addAll(bucket.getMessages());
+            }
+        }
+        messages.forEach(message -> message.setRoomId(roomId));
+        return messages;
+    }
+
+    // 구간의 어느 part 에든 이미 저장된 메시지를 빼고 다음 part 로 넘길 묶음을 만든다. 모두 저장돼 있으면 null
+    private Chunk withoutStored(Chunk chunk) {
+        Query query = Query.query(Criteria.where("roomId").is(chunk.roomId).and("bucketStart").is(chunk.start)
+                .and("messages.id").in(chunk.messageIds()));
+        query.fields().include("messages.id");
+        Set<String> stored = new HashSet<>();
+        for (ChatMessageBucket bucket : mongoTemplate.find(query, ChatMessageBucket.class)) {
+            bucket.getMessages().forEach(message -> stored.add(message.getId()));
+        }
+        if (stored.isEmpty()) {
+            return chunk.next(chunk.messages);
+        }
+        List<ChatMessage> remaining = chunk.messages.stream()
+                .filter(message -> !stored.contains(message.getId()))
+                .toList();
+        return remaining.isEmpty() ? null : chunk.next(remaining);
+    }
+
+    // 처음 쓰는 구간이면 DB 에 있는 가장 큰 part 부터 채운다
+    private int currentPart(String key, String roomId, LocalDateTime start) {
+        return currentParts.get(key, k -> {
+            Query query = Query.query(Criteria.where("roomId").is(roomId).and("bucketStart").is(start))
+                    .with(Sort.by(Sort.Direction.DESC, "part"))
+                    .limit(1);
+            query.fields().include("part");
+            ChatMessageBucket last = mongoTemplate.findOne(query, ChatMessageBucket.class);
+            return last != null ? last.getPart() : 0;
+        });
+    }
+
+    // 저장에 성공한 묶음만 구간 목록 캐시와 part 커서에 반영한다
+    private void appended(Chunk chunk) {
+        NavigableSet<LocalDateTime> starts = bucketIndex.getIfPresent(chunk.roomId);
+        if (starts != null) {
+            starts.add(chunk.start);
+        }
+        currentParts.asMap().merge(bucketKey(chunk.roomId, chunk.start), chunk.part, Math::max);
+    }
+
+    private ChatMessage toEmbedded(ChatMessage message) {
+        return message.toBuilder().roomId(null).build();
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime timestamp) {
+        long widthSeconds = bucketWidthMinutes * 60;
+        long epochSeconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSeconds, widthSeconds) * widthSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private static String bucketKey(String roomId, LocalDateTime bucketStart) {
+        return roomId + ":" + bucketStart;
+    }
+
+    // part 0 은 part 도입 전 문서와 같은 id 를 쓴다
+    private static String bucketId(String roomId, LocalDateTime bucketStart, int part) {
+        return part == 0 ? bucketKey(roomId, bucketStart) : bucketKey(roomId, bucketStart) + ":" + part;
+    }
+
+    private static boolean isBefore(ChatMessage message, LocalDateTime timestamp, String id) {
+        int cmp = message.getTimestamp().compareTo(timestamp);
+        return cmp < 0 || (cmp == 0 && id != null && message.getId().compareTo(id) < 0);
+    }
+
+    private static boolean isAfter(ChatMessage message, LocalDateTime timestamp, String id) {
+        int cmp = message.getTimestamp().compareTo(timestamp);
+        return cmp > 0 || (cmp == 0 && id != null && message.getId().compareTo(id) > 0);
+    }
+
+    private static final class Chunk {
+
+        private final String roomId;
+        private final LocalDateTime start;
+        private final int part;
+        private final List<ChatMessage> messages;
+
+        private Chunk(String roomId, LocalDateTime start, int part, List<ChatMessage> messages) {
+            this.roomId = roomId;
+            this.start = start;
+            this.part = part;
+            this.messages = messages;
+        }
+
+        Chunk next(List<ChatMessage> remaining) {
+            return new Chunk(roomId, start, part + 1, remaining);
+        }
+
+        List<String> messageIds() {
+            return messages.stream().map(ChatMessage::getId).toList();
+        }
+
+        // seq 가 없는 메시지만 있으면 null ($min 에 null 을 넘기면 범위가 null 로 덮이므로 호출하는 쪽에서 건너뛴다)
+        Long minSeq() {
+            return messages.stream().map(ChatMessage::getSeq).filter(Objects::nonNull).min(Long::compare).orElse(null);
+        }
+
+        Long maxSeq() {
+            return messages.stream().map(ChatMessage::getSeq).filter(Objects::nonNull).max(Long::compare).orElse(null);
+        }
+    }
+}
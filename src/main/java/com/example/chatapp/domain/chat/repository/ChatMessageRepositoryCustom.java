@@ -0,0 +1,38 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.ChatSearchHit;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChatMessageRepositoryCustom {
+
+    /**
+     * (timestamp, id) 기준으로 커서보다 오래된 메시지를 최신순으로 limit 개 조회한다.
+     * cursorTimestamp 가 null 이면 가장 최근 메시지부터 조회한다.
+     */
+    List<ChatMessage> findPageBefore(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit);
+
+    /**
+     * (timestamp, id) 기준으로 커서보다 최근 메시지를 오래된 순으로 limit 개 조회한다.
+     */
+    List<ChatMessage> findPageAfter(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit);
+
+    /**
+     * 방 안에서 텍스트 인덱스로 검색해 점수 높은 순으로 skip 이후 limit 개를 돌려준다.
+     * maxTime 을 넘기면 서버에서 쿼리가 중단된다.
+     */
+    List<ChatSearchHit> searchText(String roomId, String text, int skip, int limit, Duration maxTime);
+
+    // 아래 조회/삭제는 저장 방식(document/bucket)에 따라 구현이 달라진다
+
+    List<ChatMessage> findByRoomIdAndTimestampAfterOrderByTimestampAsc(String roomId, LocalDateTime timestamp);
+
+    List<ChatMessage> findByRoomIdAndTimestampBetween(String roomId, LocalDateTime start, LocalDateTime end);
+
+    List<ChatMessage> findByRoomIdAndSeqGreaterThanOrderBySeqAsc(String roomId, Long seq, int limit);
+
+    void deleteByRoomIdAndTimestampBefore(String roomId, LocalDateTime timestamp);
+}
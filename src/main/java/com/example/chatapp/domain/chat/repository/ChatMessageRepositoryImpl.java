@@ -0,0 +1,166 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.ChatSearchHit;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChatMessageRepositoryImpl implements ChatMessageRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageBucketStore bucketStore;
+    private final ChatMessageArchive archive;
+
+    // hot tier(Mongo)에서 먼저 읽고, 모자라면 더 오래된 메시지를 아카이브에서 이어 읽는다
+    @Override
+    public List<ChatMessage> findPageBefore(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        List<ChatMessage> hot = findHotPageBefore(roomId, cursorTimestamp, cursorId, limit);
+        if (hot.size() >= limit || !archive.isEnabled()) {
+            return hot;
+        }
+
+        List<ChatMessage> page = new ArrayList<>(hot);
+        ChatMessage last = hot.isEmpty() ? null : hot.get(hot.size() - 1);
+        page.addAll(archive.findPageBefore(roomId,
+                last != null ? last.getTimestamp() : cursorTimestamp,
+                last != null ? last.getId() : cursorId,
+                limit - hot.size()));
+        return page;
+    }
+
+    // 커서가 아카이브 범위 안이면 아카이브를 먼저 읽고, 모자라면 hot tier 로 이어간다
+    @Override
+    public List<ChatMessage> findPageAfter(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        LocalDateTime newestArchived = archive.newestArchivedTimestamp(roomId);
+        if (newestArchived == null || cursorTimestamp.isAfter(newestArchived)) {
+            return findHotPageAfter(roomId, cursorTimestamp, cursorId, limit);
+        }
+
+        List<ChatMessage> page = new ArrayList<>(archive.findPageAfter(roomId, cursorTimestamp, cursorId, limit));
+        if (page.size() < limit) {
+            ChatMessage last = page.isEmpty() ? null : page.get(page.size() - 1);
+            page.addAll(findHotPageAfter(roomId,
+                    last != null ? last.getTimestamp() : cursorTimestamp,
+                    last != null ? last.getId() : cursorId,
+                    limit - page.size()));
+        }
+        return page;
+    }
+
+    private List<ChatMessage> findHotPageBefore(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        if (bucketStore.isEnabled()) {
+            return bucketStore.findPageBefore(roomId, cursorTimestamp, cursorId, limit);
+        }
+
+        Criteria criteria = Criteria.where("roomId").is(roomId);
+        if (cursorTimestamp != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("timestamp").lt(cursorTimestamp),
+                    Criteria.where("timestamp").is(cursorTimestamp).and("id").lt(cursorId)
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    private List<ChatMessage> findHotPageAfter(String roomId, LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        if (bucketStore.isEnabled()) {
+            return bucketStore.findPageAfter(roomId, cursorTimestamp, cursorId, limit);
+        }
+
+        Criteria criteria = Criteria.where("roomId").is(roomId).orOperator(
+                Criteria.where("timestamp").gt(cursorTimestamp),
+                Criteria.where("timestamp").is(cursorTimestamp).and("id").gt(cursorId)
+        );
+
+        // 인덱스 {roomId:1, timestamp:-1, _id:-1} 를 역방향으로 스캔한다
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatSearchHit> searchText(String roomId, String text, int skip, int limit, Duration maxTime) {
+        if (bucketStore.isEnabled()) {
+            return bucketStore.searchText(roomId, text, skip, limit, maxTime);
+        }
+
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .addCriteria(Criteria.where("roomId").is(roomId))
+                // 점수가 같은 메시지끼리도 순서를 고정해 skip 페이지가 겹치거나 빠지지 않게 한다
+                .with(Sort.by(Sort.Direction.DESC, "id"))
+                .skip(skip)
+                .limit(limit)
+                .maxTime(maxTime);
+        return mongoTemplate.find(query, ChatSearchHit.class, mongoTemplate.getCollectionName(ChatMessage.class));
+    }
+
+    @Override
+    public List<ChatMessage> findByRoomIdAndTimestampAfterOrderByTimestampAsc(String roomId, LocalDateTime timestamp) {
+        if (bucketStore.isEnabled()) {
+            return bucketStore.findBetween(roomId, timestamp.plusNanos(1), LocalDateTime.now());
+        }
+
+        Query query = new Query(Criteria.where("roomId").is(roomId).and("timestamp").gt(timestamp))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatMessage> findByRoomIdAndTimestampBetween(String roomId, LocalDateTime start, LocalDateTime end) {
+        List<ChatMessage> hot;
+        if (bucketStore.isEnabled()) {
+            hot = bucketStore.findBetween(roomId, start, end);
+        } else {
+            Query query = new Query(Criteria.where("roomId").is(roomId).and("timestamp").gte(start).lte(end));
+            hot = mongoTemplate.find(query, ChatMessage.class);
+        }
+
+        LocalDateTime newestArchived = archive.newestArchivedTimestamp(roomId);
+        if (newestArchived == null || start.isAfter(newestArchived)) {
+            return hot;
+        }
+        List<ChatMessage> result = new ArrayList<>(archive.findBetween(roomId, start, end));
+        result.addAll(hot);
+        return result;
+    }
+
+    @Override
+    public List<ChatMessage> findByRoomIdAndSeqGreaterThanOrderBySeqAsc(String roomId, Long seq, int limit) {
+        if (bucketStore.isEnabled()) {
+            return bucketStore.findAfterSeq(roomId, seq, limit);
+        }
+
+        Query query = new Query(Criteria.where("roomId").is(roomId).and("seq").gt(seq))
+                .with(Sort.by(Sort.Direction.ASC, "seq"))
+                .limit(limit);
+        return mongoTemplate.find(query, ChatMessage.class);
+    }
+
+    @Override
+    public void deleteByRoomIdAndTimestampBefore(String roomId, LocalDateTime timestamp) {
+        if (bucketStore.isEnabled()) {
+            bucketStore.deleteBefore(roomId, timestamp);
+            return;
+        }
+
+        mongoTemplate.remove(new Query(Criteria.where("roomId").is(roomId).and("timestamp").lt(timestamp)),
+                ChatMessage.class);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.repository.ChatMessageArchive;
+import com.example.chatapp.domain.chat.repository.ChatMessageBucketStore;
+import com.example.chatapp.global.cluster.RedisLeaderLease;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hot-retention-days 보다 오래된 메시지를 chat_messages 에서 아카이브 세그먼트로 옮기는 배치 작업.
+ *
+ * 방마다 오래된 순으로 batch-size 개씩 읽어 아카이브에 쓰고(fsync), 성공한 뒤에만 Mongo 에서 삭제한다.
+ * 중간에 죽으면 다음 실행에서 아카이브의 마지막 메시지 이후부터 다시 옮기므로 중복 기록되지 않는다.
+ * 그 기준점 이전인데 아카이브에 없는 메시지(기준점 뒤에 늦게 저장된 메시지 등)는 삭제하지 않고 hot tier 에 남긴다.
+ * 옮긴 메시지는 기록 조회에서는 아카이브로 이어 읽히지만 텍스트 검색에서는 빠진다.
+ * 아카이브 디렉터리를 공유하는 여러 노드 중 리더 하나만 실행한다.
+ * 한 번 실행이 수 분 걸릴 수 있으므로 공용 @Scheduled 스케줄러가 아닌 전용 스레드에서 돈다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageArchiver {
+
+    private static final String LEADER_KEY = "chat:archive:leader";
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageArchive archive;
+    private final ChatMessageBucketStore bucketStore;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ClusterMessageRelay clusterMessageRelay;
+
+    @Value("${chat.archive.hot-retention-days:30}")
+    private long hotRetentionDays;
+
+    @Value("${chat.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${chat.archive.block-size:256}")
+    private int blockSize;
+
+    @Value("${chat.archive.max-messages-per-run:500000}")
+    private long maxMessagesPerRun;
+
+    @Value("${chat.archive.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${chat.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Value("${chat.archive.initial-delay-ms:60000}")
+    private long initialDelayMs;
+
+    // 종료 시 진행 중인 실행이 batch 경계에서 멈추도록 기다리는 시간
+    @Value("${chat.archive.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private RedisLeaderLease leaderLease;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        leaderLease = new RedisLeaderLease(redisTemplate, LEADER_KEY);
+        if (!archive.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 예외가 빠져나가면 이후 실행이 모두 취소되므로 여기서 막는다
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveOldMessages();
+            } catch (Exception e) {
+                log.error("Error running chat message archiver: {}", e.getMessage());
+            }
+        }, initialDelayMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    log.warn("Chat message archiver did not stop within {}ms", shutdownTimeoutMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (archive.isEnabled()) {
+            leaderLease.release(clusterMessageRelay.getNodeId());
+        }
+    }
+
+    public void archiveOldMessages() {
+        if (!archive.isEnabled() || !running) {
+            return;
+        }
+        if (bucketStore.isEnabled()) {
+            log.warn("Chat message archive is not supported with bucket storage layout; skipping");
+            return;
+        }
+        if (!leaderLease.tryAcquire(clusterMessageRelay.getNodeId(), leaseMs)) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(hotRetentionDays);
+        long moved = 0;
+        try {
+            List<String> roomIds = mongoTemplate.findDistinct(
+                    new Query(Criteria.where("timestamp").lt(cutoff)), "roomId", ChatMessage.class, String.class);
+            for (String roomId : roomIds) {
+                if (!running || moved >= maxMessagesPerRun
+                        || !leaderLease.tryAcquire(clusterMessageRelay.getNodeId(), leaseMs)) {
+                    break;
+                }
+                moved += archiveRoom(roomId, cutoff, maxMessagesPerRun - moved);
+            }
+        } catch (Exception e) {
+            log.error("Error archiving chat messages: {}", e.getMessage());
+        }
+
+        if (moved > 0) {
+            log.info("Archived {} chat messages older than {}", moved, cutoff);
+        }
+    }
+
+    private long archiveRoom(String roomId, LocalDateTime cutoff, long budget) throws Exception {
+        ChatMessage watermark = archive.lastArchived(roomId);
+        // 남겨 둔 메시지를 다시 읽지 않도록 이번 실행에서 읽은 위치 다음부터 읽는다
+        ChatMessage position = null;
+        long scanned = 0;
+        long moved = 0;
+
+        while (running && scanned < budget) {
+            Criteria criteria = Criteria.where("roomId").is(roomId).and("timestamp").lt(cutoff);
+            if (position != null) {
+                criteria = criteria.orOperator(
+                        Criteria.where("timestamp").gt(position.getTimestamp()),
+                        Criteria.where("timestamp").is(position.getTimestamp()).and("id").gt(position.getId())
+                );
+            }
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                    .limit((int) Math.min(batchSize, budget - scanned));
+            List<ChatMessage> batch = mongoTemplate.find(query, ChatMessage.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+            position = batch.get(batch.size() - 1);
+            scanned += batch.size();
+
+            // 이전 실행에서 아카이브까지 쓰고 삭제 전에 멈춘 메시지는 다시 쓰지 않는다
+            ChatMessage mark = watermark;
+            List<ChatMessage> fresh = batch.stream()
+                    .filter(message -> mark == null || isAfter(message, mark))
+                    .toList();
+            archive.append(roomId, fresh, blockSize);
+
+            // 방금 쓴 메시지와, 기준점 이전 메시지 중 아카이브에 실제로 있는 것만 지운다
+            List<String> ids = new ArrayList<>(fresh.stream().map(ChatMessage::getId).toList());
+            ids.addAll(alreadyArchived(roomId, batch.stream()
+                    .filter(message -> mark != null && !isAfter(message, mark))
+                    .toList()));
+            mongoTemplate.remove(new Query(Criteria.where("id").in(ids)), ChatMessage.class);
+
+            if (!fresh.isEmpty()) {
+                watermark = fresh.get(fresh.size() - 1);
+            }
+            moved += ids.size();
+        }
+        return moved;
+    }
+
+    private List<String> alreadyArchived(String roomId, List<ChatMessage> older) {
+        if (older.isEmpty()) {
+            return List.of();
+        }
+        Set<String> archived = new HashSet<>();
+        archive.findBetween(roomId, older.get(0).getTimestamp(), older.get(older.size() - 1).getTimestamp())
+                .forEach(message -> archived.add(message.getId()));
+        List<String> ids = older.stream()
+                .map(ChatMessage::getId)
+                .filter(archived::contains)
+                .toList();
+        if (ids.size() < older.size()) {
+            log.warn("Keeping {} chat messages in room {} that are older than the archive but not in it",
+                    older.size() - ids.size(), roomId);
+        }
+        return ids;
+    }
+
+    private static boolean isAfter(ChatMessage message, ChatMessage mark) {
+        int cmp = message.getTimestamp().compareTo(mark.getTimestamp());
+        return cmp > 0 || (cmp == 0 && message.getId().compareTo(mark.getId()) > 0);
+    }
+}
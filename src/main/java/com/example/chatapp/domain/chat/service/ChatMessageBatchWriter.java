@@ -0,0 +1,288 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.repository.ChatMessageBucketStore;
+import com.example.chatapp.global.metrics.ChatMetrics;
+import com.example.chatapp.global.metrics.ChatMetrics.Stage;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅 메시지 write-behind 버퍼.
+ * 메시지를 bounded 큐에 넣고, 별도 flusher 스레드가 batch-size 또는 flush-interval 기준으로
+ * 모아서 MongoDB 에 unordered bulk insert 한다. 큐가 가득 차면 호출 스레드에서 직접 저장하여
+ * 메모리 대신 지연으로 backpressure 를 건다.
+ * bulk insert 가 실패하면 backoff 를 두고 실패한 메시지만 다시 시도하고, 그래도 남은 메시지는 한 건씩 저장해
+ * 문제가 있는 메시지만 버린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageBatchWriter {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageBucketStore bucketStore;
+    private final ChatMetrics chatMetrics;
+
+    @Value("${chat.persistence.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.persistence.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.persistence.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${chat.persistence.write-behind.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${chat.persistence.write-behind.max-retries:3}")
+    private int maxRetries;
+
+    // 재시도마다 두 배로 늘어난다
+    @Value("${chat.persistence.write-behind.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private BlockingQueue<ChatMessage> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "chat-message-flusher");
+        // 종료는 shutdown() 에서 명시적으로 처리하고, 그래도 남아 있는 스레드가 JVM 종료를 막지 않게 한다
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Chat message write-behind started (capacity={}, batchSize={}, flushInterval={}ms)",
+                queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    public void enqueue(ChatMessage message) {
+        if (running && queue.offer(message)) {
+            enqueuedCount.incrementAndGet();
+            return;
+        }
+
+        // 큐가 가득 찼거나 종료 중이면 호출 스레드에서 동기 저장
+        overflowCount.incrementAndGet();
+        if (!write(List.of(message)).isEmpty()) {
+            failedCount.incrementAndGet();
+            log.error("Error saving overflowed message to database: {}", message.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // flusher 가 제한 시간 내에 끝나지 못했으면 남은 메시지를 직접 flush
+        if (!queue.isEmpty()) {
+            List<ChatMessage> remaining = new ArrayList<>(queue.size());
+            queue.drainTo(remaining);
+            for (int from = 0; from < remaining.size(); from += batchSize) {
+                flush(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+            }
+        }
+        log.info("Chat message write-behind stopped (written={}, failed={}, overflow={})",
+                writtenCount.get(), failedCount.get(), overflowCount.get());
+    }
+
+    private void runFlushLoop() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessage first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    ChatMessage next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in chat message flusher: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ChatMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchCount.incrementAndGet();
+
+        List<ChatMessage> pending = write(batch);
+        for (int attempt = 0; !pending.isEmpty() && attempt < maxRetries && backoff(attempt); attempt++) {
+            log.warn("Retrying {} chat messages (attempt {}/{})", pending.size(), attempt + 1, maxRetries);
+            pending = write(pending);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 재시도로도 남은 메시지는 한 건씩 저장해 실패 원인이 된 메시지만 버린다
+        int failed = 0;
+        for (ChatMessage message : pending) {
+            if (!write(List.of(message)).isEmpty()) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            failedCount.addAndGet(failed);
+            log.error("Dropped {} chat messages after {} retries", failed, maxRetries);
+        }
+    }
+
+    /**
+     * 메시지를 한 번 저장하고 저장하지 못한 메시지를 돌려준다. 저장 시간은 PERSIST 단계로 기록한다.
+     */
+    private List<ChatMessage> write(List<ChatMessage> messages) {
+        long start = chatMetrics.start();
+        List<ChatMessage> failed = writeOnce(messages);
+        chatMetrics.record(Stage.PERSIST, start);
+        if (!failed.isEmpty()) {
+            chatMetrics.error(Stage.PERSIST);
+        }
+        return failed;
+    }
+
+    private List<ChatMessage> writeOnce(List<ChatMessage> messages) {
+        // 재시도가 같은 문서를 다시 넣도록 id 를 미리 정해 둔다
+        for (ChatMessage message : messages) {
+            if (message.getId() == null) {
+                message.setId(new ObjectId().toHexString());
+            }
+        }
+        if (bucketStore.isEnabled()) {
+            return writeToBuckets(messages);
+        }
+        try {
+            int inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class)
+                    .insert(messages)
+                    .execute()
+                    .getInsertedCount();
+            writtenCount.addAndGet(inserted);
+            log.debug("Flushed {} chat messages to database", inserted);
+            return List.of();
+        } catch (BulkOperationException e) {
+            // 이전 시도에서 이미 저장된 메시지는 중복 키 오류로 돌아오므로 저장된 것으로 본다
+            List<ChatMessage> failed = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    failed.add(messages.get(error.getIndex()));
+                }
+            }
+            writtenCount.addAndGet(messages.size() - failed.size());
+            log.error("Partially flushed chat messages: {}/{} written, {} errors",
+                    messages.size() - failed.size(), messages.size(), e.getErrors().size());
+            return failed;
+        } catch (Exception e) {
+            log.error("Error flushing {} chat messages to database: {}", messages.size(), e.getMessage());
+            return messages;
+        }
+    }
+
+    // bucket 저장 방식: 같은 구간의 메시지는 upsert 하나의 $push 로 묶인다
+    private List<ChatMessage> writeToBuckets(List<ChatMessage> messages) {
+        try {
+            List<ChatMessage> failed = bucketStore.append(messages);
+            writtenCount.addAndGet(messages.size() - failed.size());
+            log.debug("Flushed {} chat messages to buckets", messages.size() - failed.size());
+            return failed;
+        } catch (Exception e) {
+            log.error("Error flushing {} chat messages to buckets: {}", messages.size(), e.getMessage());
+            return messages;
+        }
+    }
+
+    private boolean backoff(int attempt) {
+        // 종료 중에는 기다리지 않고 바로 한 건씩 저장으로 넘어간다
+        if (!running) {
+            return false;
+        }
+        try {
+            Thread.sleep(retryBackoffMs << attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ChatMessageResponse 전용 JSON 인코더.
+ * 필드 구성이 고정되어 있으므로 리플렉션 기반 ObjectMapper 대신 스트리밍 API 로 바로 UTF-8 바이트를 만든다.
+ * 출력 형식은 ObjectMapper 직렬화 결과와 동일하게 유지해야 한다.
+ */
+@Component
+public class ChatMessageResponseEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public byte[] encode(ChatMessageResponse response) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128 + length(response.getMessage()));
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("roomId", response.getRoomId());
+            if (response.getSeq() != null) {
+                generator.writeNumberField("seq", response.getSeq());
+            } else {
+                generator.writeNullField("seq");
+            }
+            generator.writeStringField("message", response.getMessage());
+            generator.writeStringField("senderId", response.getSenderId());
+            generator.writeStringField("senderName", response.getSenderName());
+            generator.writeStringField("messageType",
+                    response.getMessageType() != null ? response.getMessageType().name() : null);
+            generator.writeStringField("timestamp",
+                    response.getTimestamp() != null ? TIMESTAMP_FORMAT.format(response.getTimestamp()) : null);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode chat message", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -1,22 +1,42 @@
 package com.example.chatapp.domain.chat.service;
 
+import com.example.chatapp.domain.chat.dto.ChatHistoryResponse;
 import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.ChatSearchHit;
+import com.example.chatapp.domain.chat.dto.ChatSearchResponse;
+import com.example.chatapp.domain.chat.dto.HistoryCursor;
 import com.example.chatapp.domain.chat.dto.MessageType;
 import com.example.chatapp.domain.chat.dto.UnifiedMessageRequest;
 import com.example.chatapp.domain.chat.entity.ChatMessage;
 import com.example.chatapp.domain.chat.repository.ChatMessageRepository;
-import com.example.chatapp.domain.chatroom.service.ChatRoomService;
+import com.example.chatapp.domain.chatroom.service.ParticipantCountService;
+import com.example.chatapp.domain.chatroom.service.RoomListUpdatePublisher;
 import com.example.chatapp.domain.user.repository.UserRepository;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import com.example.chatapp.global.metrics.ChatMetrics;
+import com.example.chatapp.global.metrics.ChatMetrics.Stage;
+import com.mongodb.MongoExecutionTimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.HtmlUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -24,55 +44,98 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class ChatService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final String BACKFILL_HEADER = "backfill";
+    // 이어 받기가 불가능해 클라이언트가 화면을 새로 그려야 함을 알리는 헤더
+    private static final String RESET_HEADER = "reset";
+    private static final int RESET_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    // 깊은 페이지는 skip 비용이 커지므로 검색 결과는 앞쪽 일부만 제공한다
+    private static final int MAX_SEARCH_OFFSET = 1000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private final ClusterMessageRelay clusterMessageRelay;
+    private final ChatMessageResponseEncoder chatMessageResponseEncoder;
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageBatchWriter chatMessageBatchWriter;
+    private final MessageSequencer messageSequencer;
+    private final MessageSanitizer messageSanitizer;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final RoomActivityRecorder roomActivityRecorder;
+    private final PresenceHeartbeatRecorder presenceHeartbeatRecorder;
+    private final SessionMessageSender sessionMessageSender;
     private final UserRepository userRepository;
     private final RedisTemplate<String, String> redisTemplate;
-    private final ChatRoomService chatRoomService;
+    private final ParticipantCountService participantCountService;
+    private final RoomListUpdatePublisher roomListUpdatePublisher;
+    private final ChatMetrics chatMetrics;
+
+    @Value("${chat.search.max-time-ms:2000}")
+    private long searchMaxTimeMs;
 
     public void processMessage(UnifiedMessageRequest request) {
+        long processStart = chatMetrics.start();
         try {
             ChatMessageResponse response = buildMessageResponse(request);
             
             if (response == null) {
                 log.warn("Failed to build message response for request: {}", request);
+                chatMetrics.error(Stage.BUILD);
                 return;
             }
 
             saveMessageToDatabase(response);
             
+            // 최근 메시지 버퍼는 relay 의 전달 경로에서 채워진다
             sendMessageToRoom(response);
             
             updateRoomActivity(request.getRoomId(), request.getSenderId());
+
+            chatMetrics.roomMessage(request.getRoomId());
             
         } catch (Exception e) {
             log.error("Error processing message: {}", e.getMessage(), e);
+            chatMetrics.processError();
+        } finally {
+            chatMetrics.recordProcess(processStart);
         }
     }
 
     private ChatMessageResponse buildMessageResponse(UnifiedMessageRequest request) {
-        String senderName = getUserDisplayName(request.getSenderId());
-        if (senderName == null) {
-            log.warn("User not found for ID: {}", request.getSenderId());
-            return null;
-        }
+        long start = chatMetrics.start();
+        long sanitizeNanos = 0;
+        try {
+            String senderName = getUserDisplayName(request.getSenderId());
+            if (senderName == null) {
+                log.warn("User not found for ID: {}", request.getSenderId());
+                return null;
+            }
 
-        String sanitizedMessage = sanitizeMessage(request.getMessage());
-        
-        return ChatMessageResponse.builder()
-                .roomId(request.getRoomId())
-                .message(sanitizedMessage)
-                .senderId(request.getSenderId())
-                .senderName(senderName)
-                .messageType(request.getMessageType())
-                .timestamp(LocalDateTime.now())
-                .build();
+            long sanitizeStart = chatMetrics.start();
+            String sanitizedMessage = messageSanitizer.sanitize(request.getMessage());
+            sanitizeNanos = chatMetrics.record(Stage.SANITIZE, sanitizeStart);
+
+            return ChatMessageResponse.builder()
+                    .roomId(request.getRoomId())
+                    .seq(messageSequencer.next(request.getRoomId()))
+                    .message(sanitizedMessage)
+                    .senderId(request.getSenderId())
+                    .senderName(senderName)
+                    .messageType(request.getMessageType())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        } finally {
+            // SANITIZE 는 따로 기록하므로 BUILD 에서는 그만큼 뺀다
+            chatMetrics.record(Stage.BUILD, start + sanitizeNanos);
+        }
     }
 
+    // PERSIST 시간은 실제 bulk 저장을 하는 ChatMessageBatchWriter 가 기록한다
     private void saveMessageToDatabase(ChatMessageResponse response) {
         try {
             ChatMessage chatMessage = ChatMessage.builder()
                     .roomId(response.getRoomId())
+                    .seq(response.getSeq())
                     .message(response.getMessage())
                     .senderId(response.getSenderId())
                     .senderName(response.getSenderName())
@@ -80,47 +143,152 @@ public class ChatService {
                     .timestamp(response.getTimestamp())
                     .build();
 
-            chatMessageRepository.save(chatMessage);
-            log.debug("Message saved to database: {}", chatMessage.getId());
+            // write-behind: 브로드캐스트가 DB 왕복을 기다리지 않도록 배치 저장 큐에 넣는다
+            chatMessageBatchWriter.enqueue(chatMessage);
         } catch (Exception e) {
-            log.error("Error saving message to database: {}", e.getMessage());
+            log.error("Error queueing message for database: {}", e.getMessage());
+            chatMetrics.error(Stage.PERSIST);
         }
     }
 
     private void sendMessageToRoom(ChatMessageResponse response) {
+        long start = chatMetrics.start();
         try {
-            String destination = "/sub/room/" + response.getRoomId();
-            messagingTemplate.convertAndSend(destination, response);
+            // 방 전체 구독자와 다른 노드가 공유할 페이로드를 한 번만 인코딩
+            clusterMessageRelay.sendToRoom(response.getRoomId(), response, chatMessageResponseEncoder.encode(response));
             log.debug("Message sent to room {}: {}", response.getRoomId(), response.getMessage());
         } catch (Exception e) {
             log.error("Error sending message to room: {}", e.getMessage());
+            chatMetrics.error(Stage.BROADCAST);
+        } finally {
+            chatMetrics.record(Stage.BROADCAST, start);
         }
     }
 
-    private String getUserDisplayName(String userId) {
-        // 간단화: userId를 그대로 displayName으로 사용
-        return userId != null ? userId : "Unknown User";
+    /**
+     * 새 구독자에게 최근 메시지를 하나의 MESSAGE 프레임(JSON 배열, backfill 헤더)으로 바로 전달한다.
+     * lastSeq 가 있으면 그 이후 메시지만 보낸다. 빈틈 없이 이어 줄 수 없으면 reset 헤더와 함께 최근 메시지를 보내
+     * 클라이언트가 화면을 새로 그리게 한다.
+     */
+    public void sendRecentMessages(String roomId, String sessionId, String subscriptionId, Long lastSeq) {
+        Backfill backfill = lastSeq != null
+                ? getMessagesAfterSeq(roomId, lastSeq)
+                : new Backfill(recentMessageBuffer.snapshot(roomId), false);
+        if (backfill.messages.isEmpty() && !backfill.reset) {
+            return;
+        }
+
+        Map<String, String> headers = backfill.reset
+                ? Map.of(BACKFILL_HEADER, "true", RESET_HEADER, "true")
+                : Map.of(BACKFILL_HEADER, "true");
+        sessionMessageSender.send(sessionId, subscriptionId, RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX + roomId,
+                backfill.messages, headers);
+        log.debug("Sent {} recent messages to session {} in room {} (reset={})",
+                backfill.messages.size(), sessionId, roomId, backfill.reset);
+    }
+
+    /**
+     * lastSeq 이후 메시지를 seq 순으로 돌려준다.
+     * 메모리 버퍼가 lastSeq 다음부터 빈틈 없이 이어지면 버퍼만 사용하고, 아니면 Mongo 에서 채운다.
+     * 놓친 메시지가 한 번에 보낼 수 있는 양보다 많거나 채운 뒤에도 seq 가 이어지지 않으면 reset 으로 응답한다.
+     */
+    private Backfill getMessagesAfterSeq(String roomId, long lastSeq) {
+        List<ChatMessageResponse> buffered = recentMessageBuffer.snapshot(roomId);
+        NavigableMap<Long, ChatMessageResponse> missed = new TreeMap<>();
+        long oldestBufferedSeq = Long.MAX_VALUE;
+        for (ChatMessageResponse message : buffered) {
+            if (message.getSeq() == null) {
+                continue;
+            }
+            oldestBufferedSeq = Math.min(oldestBufferedSeq, message.getSeq());
+            if (message.getSeq() > lastSeq) {
+                missed.put(message.getSeq(), message);
+            }
+        }
+
+        if (oldestBufferedSeq <= lastSeq + 1 && isContiguous(missed, lastSeq)) {
+            return new Backfill(new ArrayList<>(missed.values()), false);
+        }
+
+        try {
+            List<ChatMessage> stored = chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(
+                    roomId, lastSeq, MAX_HISTORY_PAGE_SIZE + 1);
+            if (stored.size() > MAX_HISTORY_PAGE_SIZE) {
+                log.debug("Too many missed messages after seq {} in room {}, resetting", lastSeq, roomId);
+                return resetBackfill(roomId, buffered);
+            }
+            // 아직 배치 저장되지 않은 최신 메시지는 버퍼에 있다
+            for (ChatMessage message : stored) {
+                missed.putIfAbsent(message.getSeq(), toResponse(message));
+            }
+        } catch (Exception e) {
+            log.error("Error loading messages after seq {} for room {}: {}", lastSeq, roomId, e.getMessage());
+            return resetBackfill(roomId, buffered);
+        }
+
+        if (!isContiguous(missed, lastSeq)) {
+            log.debug("Missed messages after seq {} in room {} are not contiguous, resetting", lastSeq, roomId);
+            return resetBackfill(roomId, buffered);
+        }
+        return new Backfill(new ArrayList<>(missed.values()), false);
+    }
+
+    private static boolean isContiguous(NavigableMap<Long, ChatMessageResponse> messages, long lastSeq) {
+        long expected = lastSeq + 1;
+        for (long seq : messages.keySet()) {
+            if (seq != expected) {
+                return false;
+            }
+            expected++;
+        }
+        return true;
     }
 
-    private String sanitizeMessage(String message) {
-        if (message == null) return "";
-        
-        String sanitized = HtmlUtils.htmlEscape(message);
-        
-        if (sanitized.length() > 1000) {
-            sanitized = sanitized.substring(0, 1000) + "...";
+    // 이어 줄 수 없을 때는 최근 메시지만 보내고 클라이언트가 기존 화면을 버리게 한다
+    private Backfill resetBackfill(String roomId, List<ChatMessageResponse> buffered) {
+        if (!buffered.isEmpty()) {
+            return new Backfill(buffered, true);
         }
-        
-        return sanitized.trim();
+        try {
+            List<ChatMessageResponse> latest = new ArrayList<>();
+            for (ChatMessage message : chatMessageRepository.findPageBefore(roomId, null, null, RESET_PAGE_SIZE)) {
+                latest.add(toResponse(message));
+            }
+            Collections.reverse(latest);
+            return new Backfill(latest, true);
+        } catch (Exception e) {
+            log.error("Error loading latest messages for room {}: {}", roomId, e.getMessage());
+            return new Backfill(List.of(), true);
+        }
+    }
+
+    private ChatMessageResponse toResponse(ChatMessage message) {
+        return ChatMessageResponse.builder()
+                .roomId(message.getRoomId())
+                .seq(message.getSeq())
+                .message(message.getMessage())
+                .senderId(message.getSenderId())
+                .senderName(message.getSenderName())
+                .messageType(message.getMessageType())
+                .timestamp(message.getTimestamp())
+                .build();
+    }
+
+    private String getUserDisplayName(String userId) {
+        // 간단화: userId를 그대로 displayName으로 사용
+        return userId != null ? userId : "Unknown User";
     }
 
     private void updateRoomActivity(String roomId, String userId) {
+        long start = chatMetrics.start();
         try {
-            String key = "room:activity:" + roomId;
-            redisTemplate.opsForZSet().add(key, userId, System.currentTimeMillis());
-            redisTemplate.expire(key, 24, TimeUnit.HOURS);
+            // 메시지마다 쓰지 않고 주기적으로 모아서 기록
+            roomActivityRecorder.record(roomId, userId);
         } catch (Exception e) {
             log.error("Error updating room activity: {}", e.getMessage());
+            chatMetrics.error(Stage.ACTIVITY);
+        } finally {
+            chatMetrics.record(Stage.ACTIVITY, start);
         }
     }
 
@@ -131,6 +299,7 @@ public class ChatService {
 
             ChatMessageResponse joinMessage = ChatMessageResponse.builder()
                     .roomId(roomId)
+                    .seq(messageSequencer.next(roomId))
                     .message(senderName + "님이 채팅방에 입장했습니다.")
                     .senderId("SYSTEM")
                     .senderName("System")
@@ -142,12 +311,10 @@ public class ChatService {
             sendMessageToRoom(joinMessage);
             
             addUserToRoom(roomId, userId);
-            updateRoomActivity(roomId, userId);
             
             // 채팅방 참여자 수 증가
             try {
-                chatRoomService.incrementParticipantCount(roomId);
-                broadcastRoomListUpdate();
+                roomListUpdatePublisher.roomUpdated(roomId, participantCountService.increment(roomId));
             } catch (Exception e) {
                 log.warn("Failed to increment participant count for room {}: {}", roomId, e.getMessage());
             }
@@ -159,12 +326,27 @@ public class ChatService {
     }
 
     public void handleUserLeave(String roomId, String userId) {
+        removeUserFromRoom(roomId, userId);
+        publishLeave(roomId, userId);
+    }
+
+    /**
+     * heartbeat 가 끊겨 sweeper 가 접속 상태에서 제거했지만 어느 노드의 RoomPresenceEngine 도 들고 있지 않은 사용자의 퇴장 처리.
+     * 소유 노드가 죽은 경우에만 해당하며, ZSET 멤버는 이미 제거되었으므로 메시지와 참여자 수만 처리한다.
+     */
+    public void handleExpiredPresence(String roomId, String userId) {
+        presenceHeartbeatRecorder.forget(roomId, userId);
+        publishLeave(roomId, userId);
+    }
+
+    private void publishLeave(String roomId, String userId) {
         try {
             String senderName = getUserDisplayName(userId);
             if (senderName == null) return;
 
             ChatMessageResponse leaveMessage = ChatMessageResponse.builder()
                     .roomId(roomId)
+                    .seq(messageSequencer.next(roomId))
                     .message(senderName + "님이 채팅방을 떠났습니다.")
                     .senderId("SYSTEM")
                     .senderName("System")
@@ -175,12 +357,9 @@ public class ChatService {
             saveMessageToDatabase(leaveMessage);
             sendMessageToRoom(leaveMessage);
             
-            removeUserFromRoom(roomId, userId);
-            
             // 채팅방 참여자 수 감소
             try {
-                chatRoomService.decrementParticipantCount(roomId);
-                broadcastRoomListUpdate();
+                roomListUpdatePublisher.roomUpdated(roomId, participantCountService.decrement(roomId));
             } catch (Exception e) {
                 log.warn("Failed to decrement participant count for room {}: {}", roomId, e.getMessage());
             }
@@ -191,11 +370,23 @@ public class ChatService {
         }
     }
 
+    // 입장 시 접속 상태(room:presence ZADD)와 활동 시각(ZADD/EXPIRE)을 한 번의 파이프라인으로 기록
     private void addUserToRoom(String roomId, String userId) {
         try {
-            String key = "room:users:" + roomId;
-            redisTemplate.opsForSet().add(key, userId);
-            redisTemplate.expire(key, 24, TimeUnit.HOURS);
+            String activityKey = RoomActivityRecorder.ACTIVITY_KEY_PREFIX + roomId;
+            long now = System.currentTimeMillis();
+            
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    presenceHeartbeatRecorder.recordNow(ops, roomId, userId, now);
+                    ops.opsForZSet().add(activityKey, userId, now);
+                    ops.expire(activityKey, RoomActivityRecorder.ACTIVITY_TTL_HOURS, TimeUnit.HOURS);
+                    return null;
+                }
+            });
         } catch (Exception e) {
             log.error("Error adding user to room: {}", e.getMessage());
         }
@@ -203,8 +394,7 @@ public class ChatService {
 
     private void removeUserFromRoom(String roomId, String userId) {
         try {
-            String key = "room:users:" + roomId;
-            redisTemplate.opsForSet().remove(key, userId);
+            presenceHeartbeatRecorder.remove(roomId, userId);
         } catch (Exception e) {
             log.error("Error removing user from room: {}", e.getMessage());
         }
@@ -212,32 +402,178 @@ public class ChatService {
 
     public Set<String> getRoomUsers(String roomId) {
         try {
-            String key = "room:users:" + roomId;
-            return redisTemplate.opsForSet().members(key);
+            return presenceHeartbeatRecorder.getActiveMembers(roomId);
         } catch (Exception e) {
             log.error("Error getting room users: {}", e.getMessage());
             return Set.of();
         }
     }
 
-    public List<ChatMessage> getChatHistory(String roomId, int limit) {
+    public ChatHistoryResponse getChatHistory(String roomId, int limit, String before, String after) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        HistoryCursor beforeCursor = before != null ? HistoryCursor.decode(before) : null;
+        HistoryCursor afterCursor = after != null ? HistoryCursor.decode(after) : null;
+
         try {
-            List<ChatMessage> messages = chatMessageRepository.findByRoomIdOrderByTimestampDesc(roomId);
-            return messages.stream()
-                    .limit(limit)
-                    .toList();
+            List<ChatMessage> messages;
+            boolean hasMore;
+
+            if (afterCursor != null) {
+                // 커서 이후(더 최근) 메시지: 오래된 순으로 읽은 뒤 최신순으로 뒤집는다
+                List<ChatMessage> ascending = chatMessageRepository.findPageAfter(
+                        roomId, afterCursor.getTimestamp(), afterCursor.getId(), pageSize + 1);
+                hasMore = ascending.size() > pageSize;
+                messages = new ArrayList<>(ascending.subList(0, Math.min(pageSize, ascending.size())));
+                Collections.reverse(messages);
+            } else {
+                List<ChatMessage> descending = chatMessageRepository.findPageBefore(
+                        roomId,
+                        beforeCursor != null ? beforeCursor.getTimestamp() : null,
+                        beforeCursor != null ? beforeCursor.getId() : null,
+                        pageSize + 1);
+                hasMore = descending.size() > pageSize;
+                messages = descending.subList(0, Math.min(pageSize, descending.size()));
+            }
+
+            return ChatHistoryResponse.builder()
+                    .messages(messages)
+                    .nextCursor(messages.isEmpty() ? null : HistoryCursor.from(messages.get(messages.size() - 1)).encode())
+                    .prevCursor(messages.isEmpty() ? null : HistoryCursor.from(messages.get(0)).encode())
+                    .hasMore(hasMore)
+                    .build();
         } catch (Exception e) {
             log.error("Error getting chat history: {}", e.getMessage());
-            return List.of();
+            return ChatHistoryResponse.builder()
+                    .messages(List.of())
+                    .build();
         }
     }
 
-    private void broadcastRoomListUpdate() {
+    /**
+     * 방 안의 메시지를 텍스트 인덱스로 검색한다. 결과마다 검색어가 나타나는 구간을 함께 돌려준다.
+     * 아카이브가 켜져 있으면 hot-retention-days 안의 메시지만 검색된다.
+     */
+    public ChatSearchResponse searchMessages(String roomId, String query, int page, int size) {
+        if (query == null || query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Invalid search query");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        if (offset >= MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("Search page out of range");
+        }
+
         try {
-            messagingTemplate.convertAndSend("/sub/roomlist/update", "ROOM_LIST_UPDATED");
-            log.debug("Room list update broadcasted");
+            List<ChatSearchHit> hits = chatMessageRepository.searchText(
+                    roomId, query, offset, pageSize + 1, Duration.ofMillis(searchMaxTimeMs));
+            boolean hasMore = hits.size() > pageSize && offset + pageSize < MAX_SEARCH_OFFSET;
+            List<ChatSearchHit> results = hits.subList(0, Math.min(pageSize, hits.size()));
+
+            List<String> terms = extractSearchTerms(query);
+            results.forEach(hit -> hit.setHighlights(findHighlights(hit.getMessage(), terms)));
+
+            return ChatSearchResponse.builder()
+                    .results(results)
+                    .page(Math.max(0, page))
+                    .size(pageSize)
+                    .hasMore(hasMore)
+                    .build();
         } catch (Exception e) {
-            log.error("Error broadcasting room list update: {}", e.getMessage());
+            boolean timedOut = isQueryTimeout(e);
+            if (timedOut) {
+                log.warn("Search in room {} exceeded {}ms", roomId, searchMaxTimeMs);
+            } else {
+                log.error("Error searching messages in room {}: {}", roomId, e.getMessage());
+            }
+            return ChatSearchResponse.builder()
+                    .results(List.of())
+                    .page(Math.max(0, page))
+                    .size(pageSize)
+                    .timedOut(timedOut)
+                    .build();
+        }
+    }
+
+    // maxTimeMS 초과는 드라이버 예외가 그대로 올라오거나 QueryTimeoutException 으로 변환되어 올라온다
+    private static boolean isQueryTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof QueryTimeoutException || t instanceof MongoExecutionTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mongo $text 문법 기준: "구문" 은 하나의 검색어, -단어 는 제외어라 하이라이트하지 않는다
+    private List<String> extractSearchTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int end;
+            if (c == '"') {
+                end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = query.length();
+                }
+                addTerm(terms, query.substring(i + 1, end));
+                i = end + 1;
+                continue;
+            }
+            end = i;
+            while (end < query.length() && !Character.isWhitespace(query.charAt(end))) {
+                end++;
+            }
+            if (c != '-') {
+                addTerm(terms, query.substring(i, end));
+            }
+            i = end;
+        }
+        return terms;
+    }
+
+    private void addTerm(List<String> terms, String term) {
+        String stripped = term.strip();
+        if (!stripped.isEmpty()) {
+            // 저장된 메시지는 이스케이프된 형태이므로 검색어도 같은 규칙으로 바꿔서 찾는다
+            terms.add(MessageSanitizer.escapeHtml(stripped));
+        }
+    }
+
+    // 소문자로 바꾼 사본은 길이가 달라질 수 있어 원문에서 대소문자 무시 비교로 위치를 찾는다
+    private List<ChatSearchHit.HighlightRange> findHighlights(String message, List<String> terms) {
+        if (message == null || terms.isEmpty()) {
+            return List.of();
+        }
+        List<ChatSearchHit.HighlightRange> ranges = new ArrayList<>();
+        for (String term : terms) {
+            int last = message.length() - term.length();
+            int i = 0;
+            while (i <= last) {
+                if (message.regionMatches(true, i, term, 0, term.length())) {
+                    ranges.add(new ChatSearchHit.HighlightRange(i, i + term.length()));
+                    i += term.length();
+                } else {
+                    i++;
+                }
+            }
+        }
+        ranges.sort((a, b) -> Integer.compare(a.getStart(), b.getStart()));
+        return ranges;
+    }
+
+    private static final class Backfill {
+
+        private final List<ChatMessageResponse> messages;
+        private final boolean reset;
+
+        private Backfill(List<ChatMessageResponse> messages, boolean reset) {
+            this.messages = messages;
+            this.reset = reset;
         }
     }
-}
\ No newline at end of file
+}
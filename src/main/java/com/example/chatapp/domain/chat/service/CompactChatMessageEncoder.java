@@ -0,0 +1,99 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 채팅 메시지 JSON 을 CBOR 기반 compact 포맷으로 변환한다.
+ *
+ * 메시지 하나는 CBOR 배열 [messageType, senderId, senderName, message, epochSeconds, seq] 로 인코딩된다.
+ * JSON 의 timestamp 가 초 단위(yyyy-MM-dd'T'HH:mm:ss)이므로 시각도 초 단위 epoch 로 보낸다.
+ * roomId 는 구독 destination 으로 알 수 있으므로 생략하고, senderName 이 senderId 와 같으면 null 로 보낸다.
+ * backfill 처럼 JSON 배열이 들어오면 위 배열들의 배열로 인코딩한다.
+ *
+ * 트리를 만들지 않고 JSON 토큰을 읽으면서 바로 CBOR 로 쓴다.
+ */
+@Component
+public class CompactChatMessageEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
+    public byte[] encodeFromJson(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = JSON_FACTORY.createParser(json);
+             CBORGenerator generator = CBOR_FACTORY.createGenerator(out)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                // 길이를 미리 알 수 없으므로 indefinite-length 배열로 쓴다
+                generator.writeStartArray();
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    writeMessage(parser, generator);
+                }
+                generator.writeEndArray();
+            } else if (token == JsonToken.START_OBJECT) {
+                writeMessage(parser, generator);
+            } else {
+                throw new IOException("Unexpected chat payload token: " + token);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode compact chat message", e);
+        }
+        return out.toByteArray();
+    }
+
+    // parser 는 START_OBJECT 에 있고, 끝나면 END_OBJECT 에 있다
+    private void writeMessage(JsonParser parser, CBORGenerator generator) throws IOException {
+        String messageType = null;
+        String senderId = null;
+        String senderName = null;
+        String message = null;
+        String timestamp = null;
+        Long seq = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "messageType" -> messageType = text(parser, value);
+                case "senderId" -> senderId = text(parser, value);
+                case "senderName" -> senderName = text(parser, value);
+                case "message" -> message = text(parser, value);
+                case "timestamp" -> timestamp = text(parser, value);
+                case "seq" -> seq = value.isNumeric() ? parser.getLongValue() : null;
+                default -> parser.skipChildren();
+            }
+        }
+
+        generator.writeStartArray(null, 6);
+        generator.writeString(messageType);
+        generator.writeString(senderId);
+        generator.writeString(senderName != null && senderName.equals(senderId) ? null : senderName);
+        generator.writeString(message);
+        if (timestamp != null) {
+            generator.writeNumber(LocalDateTime.parse(timestamp).atZone(ZoneId.systemDefault()).toEpochSecond());
+        } else {
+            generator.writeNull();
+        }
+        if (seq != null) {
+            generator.writeNumber(seq);
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndArray();
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.global.metrics.ChatMetrics;
+import com.example.chatapp.global.ratelimit.LocalRateLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자별, 방별 메시지 전송 속도를 token bucket 으로 제한한다.
+ *
+ * 버킷은 GCRA(다음 토큰이 허용되는 이론적 시각 하나만 저장하는 token bucket) 로 구현해
+ * 로컬 모드에서는 LocalRateLimiter 의 CAS 한 번으로, redis 모드에서는 Lua 스크립트 한 번으로 판정한다.
+ * redis 모드는 클러스터 전체 기준으로 제한하고, Redis 호출이 실패하면 로컬 버킷으로 대신 판정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageRateLimiter {
+
+    public static final String SCOPE_USER = "user";
+    public static final String SCOPE_ROOM = "room";
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // KEYS 마다 (interval, limit) 를 받아 모두 허용될 때만 갱신한다. 단위는 마이크로초
+    // 반환값은 {기다려야 할 시간, 가장 오래 기다려야 하는 키 번호} 이며 시간이 0 이면 허용
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> GCRA_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) " +
+            "local wait = 0 " +
+            "local limited = 0 " +
+            "local tats = {} " +
+            "for i = 1, #KEYS do " +
+            "  local interval = tonumber(ARGV[i * 2 - 1]) " +
+            "  local limit = tonumber(ARGV[i * 2]) " +
+            "  local tat = tonumber(redis.call('GET', KEYS[i]) or now) " +
+            "  if tat < now then tat = now end " +
+            "  local nxt = tat + interval " +
+            "  if nxt - now - limit > wait then wait = nxt - now - limit limited = i end " +
+            "  tats[i] = nxt " +
+            "end " +
+            "if wait > 0 then return {math.ceil(wait), limited} end " +
+            "for i = 1, #KEYS do " +
+            "  local ttl = math.ceil((tats[i] - now) / 1000) + 1000 " +
+            "  redis.call('SET', KEYS[i], string.format('%.0f', tats[i]), 'PX', ttl) " +
+            "end " +
+            "return {0, 0}",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChatMetrics chatMetrics;
+
+    @Value("${chat.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    // local | redis
+    @Value("${chat.ratelimit.mode:local}")
+    private String mode;
+
+    @Value("${chat.ratelimit.user.rate-per-second:5}")
+    private double userRatePerSecond;
+
+    @Value("${chat.ratelimit.user.burst:10}")
+    private int userBurst;
+
+    @Value("${chat.ratelimit.room.rate-per-second:50}")
+    private double roomRatePerSecond;
+
+    @Value("${chat.ratelimit.room.burst:100}")
+    private int roomBurst;
+
+    @Value("${chat.ratelimit.maximum-buckets:100000}")
+    private long maximumBuckets;
+
+    private LocalRateLimiter userLimiter;
+    private LocalRateLimiter roomLimiter;
+
+    @PostConstruct
+    public void init() {
+        userLimiter = new LocalRateLimiter(userRatePerSecond, userBurst, maximumBuckets);
+        roomLimiter = new LocalRateLimiter(roomRatePerSecond, roomBurst, maximumBuckets);
+    }
+
+    /**
+     * 메시지 한 건을 보낼 수 있으면 ALLOWED, 아니면 제한된 범위와 재시도까지 남은 시간을 돌려준다.
+     */
+    public Decision tryAcquire(String userId, String roomId) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+
+        Decision decision = null;
+        if ("redis".equalsIgnoreCase(mode)) {
+            decision = tryAcquireRedis(userId, roomId);
+        }
+        if (decision == null) {
+            decision = tryAcquireLocal(userId, roomId);
+        }
+        if (!decision.isAllowed()) {
+            chatMetrics.rateLimited(decision.getScope());
+        }
+        return decision;
+    }
+
+    private Decision tryAcquireLocal(String userId, String roomId) {
+        long userWait = userLimiter.tryAcquire(userId);
+        if (userWait > 0) {
+            return Decision.limited(SCOPE_USER, TimeUnit.NANOSECONDS.toMillis(userWait) + 1);
+        }
+
+        long roomWait = roomLimiter.tryAcquire(roomId);
+        if (roomWait > 0) {
+            // 방 한도에 걸린 메시지가 사용자 토큰을 소모하지 않도록 되돌린다
+            userLimiter.refund(userId);
+            return Decision.limited(SCOPE_ROOM, TimeUnit.NANOSECONDS.toMillis(roomWait) + 1);
+        }
+        return Decision.ALLOWED;
+    }
+
+    private Decision tryAcquireRedis(String userId, String roomId) {
+        try {
+            long userInterval = TimeUnit.NANOSECONDS.toMicros(userLimiter.getIntervalNanos());
+            long roomInterval = TimeUnit.NANOSECONDS.toMicros(roomLimiter.getIntervalNanos());
+            @SuppressWarnings("unchecked")
+            List<Long> result = redisTemplate.execute(GCRA_SCRIPT,
+                    List.of(KEY_PREFIX + SCOPE_USER + ":" + userId, KEY_PREFIX + SCOPE_ROOM + ":" + roomId),
+                    String.valueOf(userInterval), String.valueOf(userInterval * userBurst),
+                    String.valueOf(roomInterval), String.valueOf(roomInterval * roomBurst));
+            if (result == null || result.size() < 2) {
+                return null;
+            }
+            long waitMicros = result.get(0);
+            if (waitMicros <= 0) {
+                return Decision.ALLOWED;
+            }
+            String scope = result.get(1) == 1 ? SCOPE_USER : SCOPE_ROOM;
+            return Decision.limited(scope, TimeUnit.MICROSECONDS.toMillis(waitMicros) + 1);
+        } catch (Exception e) {
+            log.error("Error checking rate limit in Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static final class Decision {
+
+        static final Decision ALLOWED = new Decision(null, 0);
+
+        private final String scope;
+        private final long retryAfterMs;
+
+        private Decision(String scope, long retryAfterMs) {
+            this.scope = scope;
+            this.retryAfterMs = retryAfterMs;
+        }
+
+        static Decision limited(String scope, long retryAfterMs) {
+            return new Decision(scope, retryAfterMs);
+        }
+
+        public boolean isAllowed() {
+            return scope == null;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public long getRetryAfterMs() {
+            return retryAfterMs;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 메시지를 HTML 이스케이프하면서 길이 제한까지만 한 번에 처리한다.
+ *
+ * 이스케이프 결과가 max-length 를 넘으면 거기서 멈추고 "..." 를 붙이며, 엔티티나 서로게이트 쌍을
+ * 중간에서 자르지 않는다. 바꿀 것이 없는 메시지는 원본 문자열을 그대로 돌려준다.
+ */
+@Component
+public class MessageSanitizer {
+
+    private static final String ELLIPSIS = "...";
+    // 가장 긴 엔티티(&quot;)의 길이
+    private static final int MAX_ENTITY_LENGTH = 6;
+
+    @Value("${chat.message.max-length:1000}")
+    private int maxLength;
+
+    public String sanitize(String message) {
+        if (message == null) {
+            return "";
+        }
+
+        int start = 0;
+        int end = message.length();
+        while (start < end && isWhitespace(message.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(message.charAt(end - 1))) {
+            end--;
+        }
+
+        if (end - start <= maxLength && !needsRewrite(message, start, end)) {
+            return start == 0 && end == message.length() ? message : message.substring(start, end);
+        }
+        return rewrite(message, start, end);
+    }
+
+    /**
+     * sanitize 와 같은 규칙으로 HTML 이스케이프만 한다. 저장된 메시지 안에서 원문 문자열의 위치를 찾을 때 쓴다.
+     */
+    public static String escapeHtml(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = entity(text.charAt(i));
+            if (entity != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (entity != null) {
+                    escaped.append(entity);
+                } else {
+                    escaped.append(text.charAt(i));
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+
+    private boolean needsRewrite(String message, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = message.charAt(i);
+            if (entity(c) != null) {
+                return true;
+            }
+            if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(message.charAt(i + 1))) {
+                    i++;
+                    continue;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String rewrite(String message, int start, int end) {
+        // 출력은 max-length + 생략 표시를 넘지 않으므로 짧은 메시지는 그보다 작게 잡는다.
+        // 호출마다 만드는 짧은 수명의 배열이라 스레드 풀 크기와 무관하게 메모리가 남지 않는다
+        long worstCase = (long) (end - start) * MAX_ENTITY_LENGTH;
+        char[] out = new char[(int) Math.min(worstCase, maxLength) + ELLIPSIS.length()];
+
+        int length = 0;
+        int i = start;
+        while (i < end) {
+            char c = message.charAt(i);
+            String entity = entity(c);
+            if (entity != null) {
+                if (length + entity.length() > maxLength) {
+                    break;
+                }
+                entity.getChars(0, entity.length(), out, length);
+                length += entity.length();
+                i++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(message.charAt(i + 1))) {
+                if (length + 2 > maxLength) {
+                    break;
+                }
+                out[length++] = c;
+                out[length++] = message.charAt(i + 1);
+                i += 2;
+            } else {
+                if (length + 1 > maxLength) {
+                    break;
+                }
+                // 짝이 없는 서로게이트는 UTF-8 로 인코딩할 수 없으므로 대체 문자로 바꾼다
+                out[length++] = Character.isSurrogate(c) ? '\uFFFD' : c;
+                i++;
+            }
+        }
+
+        if (i < end) {
+            // 잘린 지점 앞의 공백은 버리고 생략 표시를 붙인다
+            while (length > 0 && isWhitespace(out[length - 1])) {
+                length--;
+            }
+            ELLIPSIS.getChars(0, ELLIPSIS.length(), out, length);
+            length += ELLIPSIS.length();
+        }
+        return new String(out, 0, length);
+    }
+
+    // HTML 본문과 속성값 안에서 의미를 갖는 문자만 이스케이프한다
+    private static String entity(char c) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+
+    // String.trim() 과 같은 기준
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.chatapp.domain.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방별 단조 증가 시퀀스 번호 발급기.
+ * Redis INCR 로 발급하므로 여러 노드가 같은 방에 메시지를 보내도 번호가 겹치지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageSequencer {
+
+    public static final String SEQUENCE_KEY_PREFIX = "room:seq:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 다음 시퀀스 번호. Redis 장애 시 null 을 돌려주며, 이 메시지는 seq 기반 resume 대상에서 빠진다.
+     */
+    public Long next(String roomId) {
+        try {
+            return redisTemplate.opsForValue().increment(SEQUENCE_KEY_PREFIX + roomId);
+        } catch (Exception e) {
+            log.error("Error assigning sequence for room {}: {}", roomId, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 접속 상태를 room:presence:{roomId} ZSET(score = 마지막 heartbeat 시각)에 기록한다.
+ * STOMP heartbeat 와 inbound 프레임마다 호출되므로 방/사용자 단위로 모아 두었다가 주기마다 하나의 파이프라인으로 기록한다.
+ * 기록이 끊긴 멤버는 PresenceSweeper 가 정리한다.
+ * 퇴장 처리를 접속 상태를 들고 있는 노드가 하도록, 멤버마다 기록한 노드 ID 를 room:presence:owner:{roomId} 에 함께 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceHeartbeatRecorder {
+
+    public static final String PRESENCE_KEY_PREFIX = "room:presence:";
+    // 멤버가 있는 방 목록 (sweeper 가 순회)
+    public static final String PRESENCE_ROOMS_KEY = "room:presence:rooms";
+    // userId -> 접속 상태를 들고 있는 노드 ID
+    public static final String PRESENCE_OWNER_KEY_PREFIX = "room:presence:owner:";
+    // 모든 노드가 죽어도 키가 영원히 남지 않도록 하는 안전장치
+    public static final long PRESENCE_KEY_TTL_HOURS = 1;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ClusterMessageRelay clusterMessageRelay;
+
+    @Value("${chat.presence.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    // 이 노드에서 입장 상태인 roomId:userId. 퇴장 후 남은 세션의 heartbeat 가 다시 기록되지 않도록 한다
+    private final Set<String> tracked = ConcurrentHashMap.newKeySet();
+
+    // roomId -> (userId -> 마지막 heartbeat 시각)
+    private final Map<String, Map<String, Long>> pending = new ConcurrentHashMap<>();
+
+    public void record(String roomId, String userId) {
+        if (!tracked.contains(roomId + ":" + userId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>())
+                .merge(userId, now, Math::max);
+    }
+
+    /**
+     * 입장 시 호출. 주기를 기다리지 않고 주어진 파이프라인에 바로 기록하고, 이후 heartbeat 를 받기 시작한다.
+     */
+    public void recordNow(RedisOperations<String, String> ops, String roomId, String userId, long now) {
+        tracked.add(roomId + ":" + userId);
+        String key = PRESENCE_KEY_PREFIX + roomId;
+        ops.opsForZSet().add(key, userId, now);
+        ops.expire(key, PRESENCE_KEY_TTL_HOURS, TimeUnit.HOURS);
+        String ownerKey = PRESENCE_OWNER_KEY_PREFIX + roomId;
+        ops.opsForHash().put(ownerKey, userId, clusterMessageRelay.getNodeId());
+        ops.expire(ownerKey, PRESENCE_KEY_TTL_HOURS, TimeUnit.HOURS);
+        ops.opsForSet().add(PRESENCE_ROOMS_KEY, roomId);
+    }
+
+    /**
+     * stale-after-ms 안에 heartbeat 가 있었던 사용자 목록.
+     */
+    public Set<String> getActiveMembers(String roomId) {
+        long cutoff = System.currentTimeMillis() - staleAfterMs;
+        Set<String> members = redisTemplate.opsForZSet()
+                .rangeByScore(PRESENCE_KEY_PREFIX + roomId, cutoff, Double.POSITIVE_INFINITY);
+        return members != null ? members : Set.of();
+    }
+
+    public void remove(String roomId, String userId) {
+        forget(roomId, userId);
+        redisTemplate.opsForZSet().remove(PRESENCE_KEY_PREFIX + roomId, userId);
+        redisTemplate.opsForHash().delete(PRESENCE_OWNER_KEY_PREFIX + roomId, userId);
+    }
+
+    public void forget(String roomId, String userId) {
+        tracked.remove(roomId + ":" + userId);
+        Map<String, Long> users = pending.get(roomId);
+        if (users != null) {
+            users.remove(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Long>> batch = new HashMap<>();
+        for (String roomId : pending.keySet()) {
+            Map<String, Long> users = pending.remove(roomId);
+            if (users != null && !users.isEmpty()) {
+                batch.put(roomId, users);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String nodeId = clusterMessageRelay.getNodeId();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    batch.forEach((roomId, users) -> {
+                        Set<TypedTuple<String>> tuples = new HashSet<>();
+                        Map<String, String> owners = new HashMap<>();
+                        users.forEach((userId, timestamp) -> {
+                            tuples.add(new DefaultTypedTuple<>(userId, timestamp.doubleValue()));
+                            owners.put(userId, nodeId);
+                        });
+                        String key = PRESENCE_KEY_PREFIX + roomId;
+                        ops.opsForZSet().add(key, tuples);
+                        ops.expire(key, PRESENCE_KEY_TTL_HOURS, TimeUnit.HOURS);
+                        // 소유 노드 기록도 heartbeat 와 함께 갱신해 오래 머문 사용자의 기록이 TTL 로 사라지지 않게 한다
+                        String ownerKey = PRESENCE_OWNER_KEY_PREFIX + roomId;
+                        ops.opsForHash().putAll(ownerKey, owners);
+                        ops.expire(ownerKey, PRESENCE_KEY_TTL_HOURS, TimeUnit.HOURS);
+                    });
+                    ops.opsForSet().add(PRESENCE_ROOMS_KEY, batch.keySet().toArray(String[]::new));
+                    return null;
+                }
+            });
+            log.debug("Flushed presence heartbeats for {} rooms", batch.size());
+        } catch (Exception e) {
+            log.error("Error flushing presence heartbeats: {}", e.getMessage());
+        }
+    }
+}
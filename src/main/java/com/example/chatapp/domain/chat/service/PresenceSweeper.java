@@ -0,0 +1,176 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.global.cluster.RedisLeaderLease;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * heartbeat 가 끊긴 접속 상태를 정리한다.
+ *
+ * 노드가 죽어 퇴장 처리를 못 한 사용자는 room:presence ZSET 에서 점수가 갱신되지 않으므로,
+ * stale-after-ms 보다 오래된 멤버를 방마다 bounded batch 로 꺼내 퇴장 처리한다.
+ * 여러 노드가 같은 작업을 중복 수행하지 않도록 Redis 키(SET NX PX)로 리더를 선출하고, 리더만 sweep 한다.
+ *
+ * 퇴장 처리는 리더가 직접 하지 않고 멤버를 기록한 노드에 노드별 채널로 넘긴다. 그 노드의 RoomPresenceEngine 이
+ * 상태를 바꿔야 남은 세션이 나중에 끊길 때 퇴장이 다시 처리되지 않는다.
+ * 채널을 듣는 노드가 없으면(소유 노드가 죽었으면) 리더가 퇴장 메시지와 참여자 수만 처리한다.
+ * 소유 노드에 그 사용자의 세션이 아직 살아 있으면 퇴장시키지 않고 접속 상태를 다시 기록한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceSweeper implements MessageListener {
+
+    private static final String LEADER_KEY = "chat:presence:sweeper:leader";
+    private static final String EXPIRED_CHANNEL_PREFIX = "chat:presence:expired:";
+    private static final char FIELD_SEPARATOR = '\n';
+
+    // 오래된 멤버를 최대 N 개 꺼내 제거하고 [userId, 소유 노드, ...] 로 돌려준다. 방이 비면 방 목록에서도 뺀다
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>(
+            "local stale = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+            "local result = {} " +
+            "for _, user in ipairs(stale) do " +
+            "result[#result + 1] = user " +
+            "result[#result + 1] = redis.call('HGET', KEYS[3], user) or '' end " +
+            "if #stale > 0 then " +
+            "redis.call('ZREM', KEYS[1], unpack(stale)) " +
+            "redis.call('HDEL', KEYS[3], unpack(stale)) end " +
+            "if redis.call('ZCARD', KEYS[1]) == 0 then redis.call('SREM', KEYS[2], ARGV[3]) end " +
+            "return result",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ClusterMessageRelay clusterMessageRelay;
+    private final RoomPresenceEngine roomPresenceEngine;
+    private final ChatService chatService;
+
+    @Value("${chat.cluster.enabled:true}")
+    private boolean clusterEnabled;
+
+    @Value("${chat.presence.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    @Value("${chat.presence.sweep-interval-ms:5000}")
+    private long sweepIntervalMs;
+
+    @Value("${chat.presence.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    @Value("${chat.presence.sweep-max-members:1000}")
+    private int sweepMaxMembers;
+
+    private RedisLeaderLease leaderLease;
+
+    @PostConstruct
+    public void init() {
+        leaderLease = new RedisLeaderLease(redisTemplate, LEADER_KEY);
+        if (clusterEnabled) {
+            listenerContainer.addMessageListener(this,
+                    new ChannelTopic(EXPIRED_CHANNEL_PREFIX + clusterMessageRelay.getNodeId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.sweep-interval-ms:5000}")
+    public void sweep() {
+        // 리더 임기는 sweep 주기의 3배. 리더가 죽으면 그 안에 다른 노드가 이어받는다
+        if (!leaderLease.tryAcquire(clusterMessageRelay.getNodeId(), sweepIntervalMs * 3)) {
+            return;
+        }
+
+        String cutoff = String.valueOf(System.currentTimeMillis() - staleAfterMs);
+        int swept = 0;
+        try (Cursor<String> rooms = redisTemplate.opsForSet().scan(PresenceHeartbeatRecorder.PRESENCE_ROOMS_KEY,
+                ScanOptions.scanOptions().count(sweepBatchSize).build())) {
+            while (rooms.hasNext() && swept < sweepMaxMembers) {
+                swept += sweepRoom(rooms.next(), cutoff, Math.min(sweepBatchSize, sweepMaxMembers - swept));
+            }
+        } catch (Exception e) {
+            log.error("Error sweeping stale presence: {}", e.getMessage());
+        }
+
+        if (swept > 0) {
+            log.info("Swept {} stale presence entries", swept);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLeadership() {
+        leaderLease.release(clusterMessageRelay.getNodeId());
+    }
+
+    /**
+     * 다른 노드의 리더가 넘긴 만료 통지. 이 노드가 기록한 멤버이다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(FIELD_SEPARATOR);
+        if (separator < 0) {
+            log.warn("Malformed presence expiry notice: {}", body);
+            return;
+        }
+        expireLocally(body.substring(0, separator), body.substring(separator + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int sweepRoom(String roomId, String cutoff, int limit) {
+        List<String> stale = redisTemplate.execute(SWEEP_SCRIPT,
+                List.of(PresenceHeartbeatRecorder.PRESENCE_KEY_PREFIX + roomId,
+                        PresenceHeartbeatRecorder.PRESENCE_ROOMS_KEY,
+                        PresenceHeartbeatRecorder.PRESENCE_OWNER_KEY_PREFIX + roomId),
+                cutoff, String.valueOf(limit), roomId);
+        if (stale == null || stale.isEmpty()) {
+            return 0;
+        }
+        for (int i = 0; i + 1 < stale.size(); i += 2) {
+            routeExpiry(roomId, stale.get(i), stale.get(i + 1));
+        }
+        return stale.size() / 2;
+    }
+
+    private void routeExpiry(String roomId, String userId, String ownerNodeId) {
+        if (ownerNodeId.isEmpty() || ownerNodeId.equals(clusterMessageRelay.getNodeId())) {
+            expireLocally(roomId, userId);
+            return;
+        }
+        Long receivers = null;
+        if (clusterEnabled) {
+            try {
+                receivers = redisTemplate.convertAndSend(EXPIRED_CHANNEL_PREFIX + ownerNodeId,
+                        roomId + FIELD_SEPARATOR + userId);
+            } catch (Exception e) {
+                log.error("Error routing presence expiry to node {}: {}", ownerNodeId, e.getMessage());
+            }
+        }
+        if (receivers == null || receivers == 0) {
+            // 소유 노드가 없으니 이 노드의 엔진도 상태를 들고 있지 않다
+            chatService.handleExpiredPresence(roomId, userId);
+        }
+    }
+
+    private void expireLocally(String roomId, String userId) {
+        if (!roomPresenceEngine.expirePresence(roomId, userId)) {
+            chatService.handleExpiredPresence(roomId, userId);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.global.messaging.RoomMessageListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 방별 최근 메시지 N 개를 보관하는 메모리 링 버퍼.
+ * 새 구독자에게 DB 조회 없이 바로 backfill 하기 위해 사용하며, 일정 시간 접근이 없는 방은 제거된다.
+ * relay 의 로컬 전달 경로에서 채워지므로 다른 노드에서 보낸 메시지와 입장/퇴장 메시지도 함께 담긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecentMessageBuffer implements RoomMessageListener {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.recent-messages.capacity:50}")
+    private int capacity;
+
+    @Value("${chat.recent-messages.max-rooms:10000}")
+    private long maxRooms;
+
+    @Value("${chat.recent-messages.idle-ttl-ms:600000}")
+    private long idleTtlMs;
+
+    private Cache<String, Ring> rings;
+
+    @PostConstruct
+    public void init() {
+        rings = Caffeine.newBuilder()
+                .maximumSize(maxRooms)
+                .expireAfterAccess(Duration.ofMillis(idleTtlMs))
+                .build();
+    }
+
+    @Override
+    public void onLocalRoomMessage(String roomId, Object payload) {
+        if (payload instanceof ChatMessageResponse message) {
+            append(message);
+        }
+    }
+
+    @Override
+    public void onRelayedRoomMessage(String roomId, byte[] json) {
+        try {
+            append(objectMapper.readValue(json, ChatMessageResponse.class));
+        } catch (Exception e) {
+            log.error("Error buffering relayed message for room {}: {}", roomId, e.getMessage());
+        }
+    }
+
+    public void append(ChatMessageResponse message) {
+        rings.get(message.getRoomId(), roomId -> new Ring(capacity)).add(message);
+    }
+
+    /**
+     * 오래된 순으로 정렬된 최근 메시지 복사본. 버퍼가 없으면 빈 리스트.
+     */
+    public List<ChatMessageResponse> snapshot(String roomId) {
+        Ring ring = rings.getIfPresent(roomId);
+        return ring != null ? ring.snapshot() : List.of();
+    }
+
+    public void evict(String roomId) {
+        rings.invalidate(roomId);
+    }
+
+    private static final class Ring {
+
+        private final ChatMessageResponse[] slots;
+        private int head;
+        private int size;
+
+        private Ring(int capacity) {
+            this.slots = new ChatMessageResponse[capacity];
+        }
+
+        synchronized void add(ChatMessageResponse message) {
+            slots[head] = message;
+            head = (head + 1) % slots.length;
+            if (size < slots.length) {
+                size++;
+            }
+        }
+
+        synchronized List<ChatMessageResponse> snapshot() {
+            List<ChatMessageResponse> messages = new ArrayList<>(size);
+            int start = (head - size + slots.length) % slots.length;
+            for (int i = 0; i < size; i++) {
+                messages.add(slots[(start + i) % slots.length]);
+            }
+            return messages;
+        }
+    }
+}
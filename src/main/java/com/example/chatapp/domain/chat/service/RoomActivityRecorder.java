@@ -0,0 +1,96 @@
+package com.example.chatapp.domain.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지마다 발생하는 room:activity ZADD/EXPIRE 를 방/사용자 단위로 모아 두었다가
+ * 주기마다 하나의 파이프라인으로 기록한다. 같은 틱 안의 반복 메시지는 마지막 시각 하나로 합쳐진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomActivityRecorder {
+
+    public static final String ACTIVITY_KEY_PREFIX = "room:activity:";
+    public static final long ACTIVITY_TTL_HOURS = 24;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // roomId -> (userId -> 마지막 활동 시각)
+    // 안쪽 map 은 pending.compute 안에서만 바꾸므로, flush 가 방을 떼어 간 뒤에는 누구도 그 map 에 쓰지 않는다
+    private final Map<String, Map<String, Long>> pending = new ConcurrentHashMap<>();
+
+    public void record(String roomId, String userId) {
+        long now = System.currentTimeMillis();
+        pending.compute(roomId, (id, users) -> {
+            Map<String, Long> merged = users != null ? users : new HashMap<>();
+            merged.merge(userId, now, Math::max);
+            return merged;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${chat.activity.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Long>> batch = new HashMap<>();
+        for (String roomId : pending.keySet()) {
+            Map<String, Long> users = pending.remove(roomId);
+            if (users != null) {
+                batch.put(roomId, users);
+            }
+        }
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    batch.forEach((roomId, users) -> {
+                        Set<TypedTuple<String>> tuples = new HashSet<>();
+                        users.forEach((userId, timestamp) ->
+                                tuples.add(new DefaultTypedTuple<>(userId, timestamp.doubleValue())));
+                        String key = ACTIVITY_KEY_PREFIX + roomId;
+                        ops.opsForZSet().add(key, tuples);
+                        ops.expire(key, ACTIVITY_TTL_HOURS, TimeUnit.HOURS);
+                    });
+                    return null;
+                }
+            });
+            log.debug("Flushed room activity for {} rooms", batch.size());
+        } catch (Exception e) {
+            log.error("Error flushing room activity: {}", e.getMessage());
+            // 다음 틱에 다시 기록하도록 그 사이 들어온 활동과 합쳐 되돌려 놓는다
+            batch.forEach(this::restore);
+        }
+    }
+
+    private void restore(String roomId, Map<String, Long> users) {
+        pending.compute(roomId, (id, current) -> {
+            if (current == null) {
+                return users;
+            }
+            users.forEach((userId, timestamp) -> current.merge(userId, timestamp, Math::max));
+            return current;
+        });
+    }
+}
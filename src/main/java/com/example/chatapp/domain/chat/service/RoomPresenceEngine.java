@@ -0,0 +1,246 @@
+package com.example.chatapp.domain.chat.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (roomId, userId) 단위 접속 상태 관리.
+ *
+ * 같은 사용자의 여러 세션(탭, 재연결)을 참조 카운트로 묶고, 마지막 세션이 끊겨도 유예 시간 동안은 퇴장으로 보지 않는다.
+ * 입장/퇴장 부수 효과(메시지 저장, 참여자 수, 방 목록 브로드캐스트)는 실제 상태가 바뀔 때만 한 번 실행된다.
+ *
+ * 부수 효과는 상태를 바꾼 (roomId, userId) 모니터 안에서 실행되므로 같은 사용자의 입장과 퇴장은 바뀐 순서대로 전달된다.
+ * 퇴장한 항목은 퇴장 처리가 끝난 뒤에 map 에서 빠지므로, 그 사이 다시 입장하는 쪽은 퇴장이 끝날 때까지 기다린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomPresenceEngine {
+
+    private final ChatService chatService;
+    private final PresenceHeartbeatRecorder presenceHeartbeatRecorder;
+
+    @Value("${chat.presence.grace-period-ms:10000}")
+    private long gracePeriodMs;
+
+    private final Map<String, Presence> presences = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-grace");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        // 종료 시 유예 중인 퇴장은 바로 처리해 참여자 수가 남지 않도록 한다
+        for (Presence presence : List.copyOf(presences.values())) {
+            synchronized (presence) {
+                if (presence.pendingLeave != null && presence.present) {
+                    fireLeave(presence.roomId, presence.userId);
+                }
+                presence.present = false;
+            }
+        }
+        presences.clear();
+    }
+
+    /**
+     * 세션 연결. 첫 세션이면 입장 처리하고, 유예 중인 퇴장이 있으면 취소만 한다.
+     */
+    public void sessionConnected(String roomId, String userId, String sessionId) {
+        markPresent(roomId, userId, sessionId);
+    }
+
+    /**
+     * 세션 종료. 마지막 세션이면 유예 시간 뒤 퇴장을 예약한다.
+     */
+    public void sessionDisconnected(String roomId, String userId, String sessionId) {
+        Presence presence = presences.get(key(roomId, userId));
+        if (presence == null) {
+            return;
+        }
+        synchronized (presence) {
+            if (presence.removed) {
+                return;
+            }
+            presence.sessions.remove(sessionId);
+            if (!presence.sessions.isEmpty()) {
+                return;
+            }
+            if (!presence.present) {
+                remove(presence);
+                return;
+            }
+            presence.cancelPendingLeave();
+            presence.pendingLeave = scheduler.schedule(() -> expire(presence), gracePeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 명시적 입장 요청. 이미 입장 상태면 아무것도 하지 않는다.
+     */
+    public void join(String roomId, String userId) {
+        markPresent(roomId, userId, null);
+    }
+
+    /**
+     * 명시적 퇴장 요청. 유예 없이 바로 퇴장 처리한다. 세션은 남아 있을 수 있다.
+     */
+    public void leave(String roomId, String userId) {
+        Presence presence = presences.get(key(roomId, userId));
+        if (presence == null) {
+            return;
+        }
+        synchronized (presence) {
+            if (presence.removed) {
+                return;
+            }
+            presence.cancelPendingLeave();
+            markAbsent(presence);
+            if (presence.sessions.isEmpty()) {
+                remove(presence);
+            }
+        }
+    }
+
+    /**
+     * heartbeat 만료로 sweeper 가 접속 상태에서 제거한 사용자의 퇴장. 이 노드가 접속 상태를 들고 있지 않으면 false.
+     * 이 노드에 세션이 남아 있으면 기록만 늦은 것이므로 퇴장시키지 않고 다음 flush 에 접속 상태를 다시 기록한다.
+     * 퇴장시키면 heartbeat 기록도 멈춰, 연결된 사용자가 다시 입장할 때까지 접속자 목록에서 빠지기 때문이다.
+     */
+    public boolean expirePresence(String roomId, String userId) {
+        Presence presence = presences.get(key(roomId, userId));
+        if (presence == null) {
+            return false;
+        }
+        synchronized (presence) {
+            if (presence.removed) {
+                return false;
+            }
+            if (presence.present && !presence.sessions.isEmpty()) {
+                log.debug("User {} still has live sessions in room {}, restoring presence", userId, roomId);
+                presenceHeartbeatRecorder.record(roomId, userId);
+                return true;
+            }
+            presence.cancelPendingLeave();
+            markAbsent(presence);
+            if (presence.sessions.isEmpty()) {
+                remove(presence);
+            }
+        }
+        return true;
+    }
+
+    // 입장 상태로 만들고, 새로 입장한 경우 입장 처리한다. 제거된 항목을 잡았으면 새로 만들어 다시 시도한다
+    private void markPresent(String roomId, String userId, String sessionId) {
+        String key = key(roomId, userId);
+        while (true) {
+            Presence presence = presences.computeIfAbsent(key, k -> new Presence(roomId, userId));
+            synchronized (presence) {
+                if (presence.removed) {
+                    continue;
+                }
+                if (sessionId != null) {
+                    presence.sessions.add(sessionId);
+                }
+                if (presence.cancelPendingLeave()) {
+                    log.debug("User {} reconnected to room {} within grace period", userId, roomId);
+                }
+                if (!presence.present) {
+                    presence.present = true;
+                    fireJoin(roomId, userId);
+                }
+                return;
+            }
+        }
+    }
+
+    // presence 모니터 안에서 호출한다
+    private void markAbsent(Presence presence) {
+        if (presence.present) {
+            presence.present = false;
+            fireLeave(presence.roomId, presence.userId);
+        }
+    }
+
+    private void remove(Presence presence) {
+        presence.removed = true;
+        presences.remove(key(presence.roomId, presence.userId), presence);
+    }
+
+    private void expire(Presence presence) {
+        synchronized (presence) {
+            if (presence.pendingLeave == null || !presence.sessions.isEmpty()) {
+                return;
+            }
+            presence.pendingLeave = null;
+            markAbsent(presence);
+            remove(presence);
+        }
+    }
+
+    private void fireJoin(String roomId, String userId) {
+        try {
+            chatService.handleUserJoin(roomId, userId);
+        } catch (Exception e) {
+            log.error("Error firing join for user {} in room {}: {}", userId, roomId, e.getMessage());
+        }
+    }
+
+    private void fireLeave(String roomId, String userId) {
+        try {
+            chatService.handleUserLeave(roomId, userId);
+        } catch (Exception e) {
+            log.error("Error firing leave for user {} in room {}: {}", userId, roomId, e.getMessage());
+        }
+    }
+
+    private static String key(String roomId, String userId) {
+        return roomId + ":" + userId;
+    }
+
+    private static final class Presence {
+
+        private final String roomId;
+        private final String userId;
+        private final Set<String> sessions = new HashSet<>();
+        private boolean present;
+        private boolean removed;
+        private ScheduledFuture<?> pendingLeave;
+
+        private Presence(String roomId, String userId) {
+            this.roomId = roomId;
+            this.userId = userId;
+        }
+
+        boolean cancelPendingLeave() {
+            if (pendingLeave == null) {
+                return false;
+            }
+            pendingLeave.cancel(false);
+            pendingLeave = null;
+            return true;
+        }
+    }
+}
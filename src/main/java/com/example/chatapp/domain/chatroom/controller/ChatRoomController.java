@@ -1,11 +1,14 @@
 package com.example.chatapp.domain.chatroom.controller;
 
+import com.example.chatapp.domain.chatroom.dto.ChatRoomPageResponse;
 import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
 import com.example.chatapp.domain.chatroom.dto.CreateChatRoomRequest;
 import com.example.chatapp.domain.chatroom.service.ChatRoomService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,6 +26,27 @@ public class ChatRoomController {
         return ResponseEntity.ok(chatRooms);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<ChatRoomPageResponse> getChatRoomPage(
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String prefix,
+            WebRequest webRequest) {
+        ChatRoomPageResponse page;
+        try {
+            page = chatRoomService.getChatRoomPage(size, cursor, prefix);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // 페이지 내용이 같으면 본문 직렬화/전송 없이 304 응답
+        String etag = computeEtag(page);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+    
     @GetMapping("/{roomId}")
     public ResponseEntity<ChatRoomResponse> getChatRoom(@PathVariable String roomId) {
         ChatRoomResponse chatRoom = chatRoomService.getChatRoomByRoomId(roomId);
@@ -42,4 +66,18 @@ public class ChatRoomController {
         chatRoomService.deleteChatRoom(roomId);
         return ResponseEntity.ok().build();
     }
+    
+    // 응답에 드러나는 값 중 바뀔 수 있는 것(수정 시각, 참여자 수, 다음 커서)만으로 만든 weak ETag
+    private String computeEtag(ChatRoomPageResponse page) {
+        long hash = 17;
+        for (ChatRoomResponse room : page.getRooms()) {
+            hash = 31 * hash + room.getId();
+            hash = 31 * hash + (room.getUpdatedAt() != null ? room.getUpdatedAt().hashCode() : 0);
+            hash = 31 * hash + (room.getParticipantCount() != null ? room.getParticipantCount() : 0);
+            hash = 31 * hash + (room.getRoomName() != null ? room.getRoomName().hashCode() : 0);
+            hash = 31 * hash + (room.getDescription() != null ? room.getDescription().hashCode() : 0);
+        }
+        hash = 31 * hash + (page.getNextCursor() != null ? page.getNextCursor().hashCode() : 0);
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatRoomPageResponse {
+    private List<ChatRoomResponse> rooms;
+    // 다음 페이지(더 오래된 방) 조회용 커서, 마지막 페이지면 null
+    private String nextCursor;
+    private boolean hasMore;
+}
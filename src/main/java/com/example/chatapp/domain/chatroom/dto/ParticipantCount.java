@@ -0,0 +1,15 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Redis 카운터 변경 직후의 참여자 수.
+ * version 은 방마다 변경할 때마다 1씩 커지므로, 결과가 늦게 도착해도 어느 쪽이 최신인지 비교할 수 있다.
+ */
+@Data
+@AllArgsConstructor
+public class ParticipantCount {
+    private long count;
+    private long version;
+}
@@ -0,0 +1,7 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+public enum RoomChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
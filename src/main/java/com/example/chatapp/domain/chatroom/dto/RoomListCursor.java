@@ -0,0 +1,51 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 채팅방 목록 keyset 페이지네이션 커서 (updatedAt, id).
+ * 클라이언트에는 불투명한 Base64 URL-safe 문자열로 전달된다.
+ * updated_at 이 NOT NULL 이 되기 전에 만들어진 행은 updatedAt 이 비어 있을 수 있어 createdAt 으로 대신한다.
+ */
+@Getter
+@AllArgsConstructor
+public class RoomListCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime updatedAt;
+    private final Long id;
+
+    public static RoomListCursor from(ChatRoomResponse room) {
+        LocalDateTime updatedAt = room.getUpdatedAt() != null ? room.getUpdatedAt() : room.getCreatedAt();
+        if (updatedAt == null || room.getId() == null) {
+            throw new IllegalStateException("Room " + room.getRoomId() + " has no sort key for a cursor");
+        }
+        return new RoomListCursor(updatedAt, room.getId());
+    }
+
+    public static RoomListCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx <= 0 || idx == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed room list cursor");
+            }
+            return new RoomListCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed room list cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * /sub/roomlist/update 로 전달되는 채팅방 목록 변경분.
+ * 클라이언트는 전체 목록을 다시 조회하지 않고 changes 만 반영한다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomListDelta {
+
+    public static final String TYPE = "ROOM_LIST_DELTA";
+
+    @Builder.Default
+    private String type = TYPE;
+
+    private List<RoomChange> changes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RoomChange {
+        private String roomId;
+        private RoomChangeType changeType;
+        private Integer participantCount;
+        // CREATED 인 경우에만 채워진다
+        private ChatRoomResponse room;
+        // 참여자 수 변경 번호. 늦게 도착한 변경이 최신 값을 덮지 않도록 합칠 때만 쓰고 클라이언트에는 보내지 않는다
+        @JsonIgnore
+        private Long version;
+    }
+}
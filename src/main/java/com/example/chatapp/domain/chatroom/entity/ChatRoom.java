@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_rooms")
+@Table(name = "chat_rooms", indexes = {
+        @Index(name = "idx_chat_rooms_updated_at_id", columnList = "updated_at DESC, id DESC"),
+        @Index(name = "idx_chat_rooms_room_name", columnList = "room_name")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,7 +26,7 @@ public class ChatRoom {
     @Column(unique = true, nullable = false)
     private String roomId;
     
-    @Column(nullable = false)
+    @Column(name = "room_name", nullable = false)
     private String roomName;
     
     private String description;
@@ -34,7 +37,8 @@ public class ChatRoom {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
-    @Column(name = "updated_at")
+    // 방 목록 keyset 페이지네이션의 정렬 키
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
     @Column(name = "participant_count")
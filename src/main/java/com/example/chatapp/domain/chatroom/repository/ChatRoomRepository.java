@@ -2,14 +2,16 @@ package com.example.chatapp.domain.chatroom.repository;
 
 import com.example.chatapp.domain.chatroom.entity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long>, ChatRoomRepositoryCustom {
     
     Optional<ChatRoom> findByRoomId(String roomId);
     
@@ -21,4 +23,9 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     boolean existsByRoomId(String roomId);
     
     void deleteByRoomId(String roomId);
+    
+    // 벌크 업데이트이므로 @PreUpdate 가 호출되지 않아 updatedAt 이 바뀌지 않는다
+    @Modifying
+    @Query("UPDATE ChatRoom c SET c.participantCount = :count WHERE c.roomId = :roomId")
+    int updateParticipantCount(@Param("roomId") String roomId, @Param("count") int count);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.chatapp.domain.chatroom.repository;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChatRoomRepositoryCustom {
+
+    /**
+     * (updatedAt, id) 기준으로 커서보다 오래된 방을 최신순으로 limit 개 조회한다.
+     * 엔티티 대신 ChatRoomResponse 로 바로 프로젝션하며, namePrefix 가 있으면 방 이름 접두어로 거른다.
+     * cursorUpdatedAt 이 null 이면 가장 최근 방부터 조회한다.
+     */
+    List<ChatRoomResponse> findPage(String namePrefix, LocalDateTime cursorUpdatedAt, Long cursorId, int limit);
+}
@@ -0,0 +1,46 @@
+package com.example.chatapp.domain.chatroom.repository;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChatRoomRepositoryImpl implements ChatRoomRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ChatRoomResponse> findPage(String namePrefix, LocalDateTime cursorUpdatedAt, Long cursorId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.example.chatapp.domain.chatroom.dto.ChatRoomResponse(" +
+                "c.id, c.roomId, c.roomName, c.description, c.createdBy, c.createdAt, c.updatedAt, c.participantCount) " +
+                "FROM ChatRoom c WHERE 1 = 1");
+        if (namePrefix != null) {
+            // 접두어 LIKE 는 room_name 인덱스를 탈 수 있다
+            jpql.append(" AND c.roomName LIKE :namePrefix ESCAPE '\\'");
+        }
+        if (cursorUpdatedAt != null) {
+            jpql.append(" AND (c.updatedAt < :cursorUpdatedAt OR (c.updatedAt = :cursorUpdatedAt AND c.id < :cursorId))");
+        }
+        jpql.append(" ORDER BY c.updatedAt DESC, c.id DESC");
+
+        TypedQuery<ChatRoomResponse> query = entityManager.createQuery(jpql.toString(), ChatRoomResponse.class)
+                .setMaxResults(limit);
+        if (namePrefix != null) {
+            query.setParameter("namePrefix", escapeLike(namePrefix) + "%");
+        }
+        if (cursorUpdatedAt != null) {
+            query.setParameter("cursorUpdatedAt", cursorUpdatedAt);
+            query.setParameter("cursorId", cursorId);
+        }
+        return query.getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
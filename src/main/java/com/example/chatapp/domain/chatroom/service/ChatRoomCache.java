@@ -0,0 +1,124 @@
+package com.example.chatapp.domain.chatroom.service;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+import com.example.chatapp.global.transaction.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 채팅방 조회 결과의 로컬 read-through 캐시.
+ * 방 단건은 roomId 로, 전체 목록은 정렬된 스냅샷 하나로 캐싱한다.
+ * 생성/삭제 시 로컬 캐시를 무효화하고 Redis 채널로 다른 노드에도 무효화를 전파한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRoomCache implements MessageListener {
+
+    private static final String INVALIDATION_CHANNEL = "chat:roomcache:invalidate";
+    private static final String LIST_KEY = "*";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${chat.roomcache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${chat.roomcache.room-ttl-ms:30000}")
+    private long roomTtlMs;
+
+    @Value("${chat.roomcache.list-ttl-ms:5000}")
+    private long listTtlMs;
+
+    private Cache<String, ChatRoomResponse> rooms;
+    private Cache<String, List<ChatRoomResponse>> roomList;
+
+    @PostConstruct
+    public void init() {
+        rooms = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(roomTtlMs))
+                .recordStats()
+                .build();
+        roomList = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(listTtlMs))
+                .recordStats()
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 읽어 저장한다. loader 가 null 을 반환하면 캐싱하지 않는다.
+     */
+    public ChatRoomResponse getRoom(String roomId, Function<String, ChatRoomResponse> loader) {
+        return rooms.get(roomId, loader);
+    }
+
+    public List<ChatRoomResponse> getRoomList(Supplier<List<ChatRoomResponse>> loader) {
+        return roomList.get(LIST_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    // 커밋 전에 무효화하면 다른 스레드가 이전 상태를 다시 캐싱할 수 있으므로 커밋 이후에 실행한다
+    public void roomCreated(ChatRoomResponse room) {
+        TransactionCallbacks.afterCommit(() -> {
+            rooms.put(room.getRoomId(), room);
+            roomList.invalidateAll();
+            publishInvalidation(LIST_KEY);
+        });
+    }
+
+    public void roomDeleted(String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            rooms.invalidate(roomId);
+            roomList.invalidateAll();
+            publishInvalidation(roomId);
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!LIST_KEY.equals(key)) {
+            rooms.invalidate(key);
+        }
+        roomList.invalidateAll();
+    }
+
+    public CacheStats getRoomCacheStats() {
+        return rooms.stats();
+    }
+
+    public CacheStats getRoomListCacheStats() {
+        return roomList.stats();
+    }
+
+    public long getRoomCacheSize() {
+        return rooms.estimatedSize();
+    }
+
+    private void publishInvalidation(String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+        } catch (Exception e) {
+            log.warn("Failed to publish room cache invalidation for {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.chatapp.domain.chatroom.service;
 
+import com.example.chatapp.domain.chatroom.dto.ChatRoomPageResponse;
 import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
 import com.example.chatapp.domain.chatroom.dto.CreateChatRoomRequest;
+import com.example.chatapp.domain.chatroom.dto.RoomListCursor;
 import com.example.chatapp.domain.chatroom.entity.ChatRoom;
 import com.example.chatapp.domain.chatroom.repository.ChatRoomRepository;
+import com.example.chatapp.global.transaction.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -17,18 +22,54 @@ import java.util.stream.Collectors;
 @Transactional
 public class ChatRoomService {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final ChatRoomRepository chatRoomRepository;
+    private final ParticipantCountService participantCountService;
+    private final ChatRoomCache chatRoomCache;
+    private final RoomListUpdatePublisher roomListUpdatePublisher;
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ChatRoomResponse> getAllChatRooms() {
-        return chatRoomRepository.findAllOrderByUpdatedAtDesc().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ChatRoomResponse> chatRooms = chatRoomCache.getRoomList(() ->
+                chatRoomRepository.findAllOrderByUpdatedAtDesc().stream()
+                        .map(this::convertToResponse)
+                        .collect(Collectors.toList()));
+        return applyLiveParticipantCounts(chatRooms);
     }
     
+    /**
+     * 최근 수정순 keyset 페이지. cursor 는 이전 응답의 nextCursor, namePrefix 는 방 이름 접두어 필터.
+     */
+    @Transactional(readOnly = true)
+    public ChatRoomPageResponse getChatRoomPage(int size, String cursor, String namePrefix) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        RoomListCursor pageCursor = cursor != null ? RoomListCursor.decode(cursor) : null;
+        String prefix = namePrefix != null && !namePrefix.isBlank() ? namePrefix : null;
+
+        List<ChatRoomResponse> rows = chatRoomRepository.findPage(
+                prefix,
+                pageCursor != null ? pageCursor.getUpdatedAt() : null,
+                pageCursor != null ? pageCursor.getId() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatRoomResponse> rooms = applyLiveParticipantCounts(rows.subList(0, Math.min(pageSize, rows.size())));
+
+        return ChatRoomPageResponse.builder()
+                .rooms(rooms)
+                .nextCursor(hasMore ? RoomListCursor.from(rooms.get(rooms.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ChatRoomResponse getChatRoomByRoomId(String roomId) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomId(roomId)
-                .orElseThrow(() -> new RuntimeException("채팅방을 찾을 수 없습니다."));
-        return convertToResponse(chatRoom);
+        ChatRoomResponse chatRoom = chatRoomCache.getRoom(roomId, id ->
+                chatRoomRepository.findByRoomId(id).map(this::convertToResponse).orElse(null));
+        if (chatRoom == null) {
+            throw new RuntimeException("채팅방을 찾을 수 없습니다.");
+        }
+        return applyLiveParticipantCounts(List.of(chatRoom)).get(0);
     }
     
     public ChatRoomResponse createChatRoom(CreateChatRoomRequest request, String createdBy) {
@@ -43,7 +84,12 @@ public class ChatRoomService {
                 .build();
         
         ChatRoom savedRoom = chatRoomRepository.save(chatRoom);
-        return convertToResponse(savedRoom);
+        ChatRoomResponse response = convertToResponse(savedRoom);
+        chatRoomCache.roomCreated(response);
+        // 커밋 전에 알리면 클라이언트가 아직 보이지 않는(또는 롤백된) 방을 조회하게 된다
+        ChatRoomResponse created = response.toBuilder().build();
+        TransactionCallbacks.afterCommit(() -> roomListUpdatePublisher.roomCreated(created));
+        return response;
     }
     
     public void deleteChatRoom(String roomId) {
@@ -51,23 +97,10 @@ public class ChatRoomService {
             throw new RuntimeException("채팅방을 찾을 수 없습니다.");
         }
         chatRoomRepository.deleteByRoomId(roomId);
-    }
-    
-    public void incrementParticipantCount(String roomId) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomId(roomId)
-                .orElseThrow(() -> new RuntimeException("채팅방을 찾을 수 없습니다."));
-        chatRoom.setParticipantCount(chatRoom.getParticipantCount() + 1);
-        chatRoomRepository.save(chatRoom);
-    }
-    
-    public void decrementParticipantCount(String roomId) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomId(roomId)
-                .orElseThrow(() -> new RuntimeException("채팅방을 찾을 수 없습니다."));
-        int currentCount = chatRoom.getParticipantCount();
-        if (currentCount > 0) {
-            chatRoom.setParticipantCount(currentCount - 1);
-            chatRoomRepository.save(chatRoom);
-        }
+        // 롤백되면 방이 남으므로 카운터는 커밋된 뒤에 지운다
+        TransactionCallbacks.afterCommit(() -> participantCountService.remove(roomId));
+        chatRoomCache.roomDeleted(roomId);
+        TransactionCallbacks.afterCommit(() -> roomListUpdatePublisher.roomDeleted(roomId));
     }
     
     private String generateUniqueRoomId() {
@@ -78,6 +111,18 @@ public class ChatRoomService {
         return roomId;
     }
     
+    // DB 값은 주기적으로만 동기화되므로 Redis 의 실시간 참여자 수로 덮어쓴다.
+    // 캐시된 객체는 공유되므로 복사본에 반영한다.
+    private List<ChatRoomResponse> applyLiveParticipantCounts(List<ChatRoomResponse> chatRooms) {
+        Map<String, Integer> liveCounts = participantCountService.getCounts(
+                chatRooms.stream().map(ChatRoomResponse::getRoomId).toList());
+        return chatRooms.stream()
+                .map(room -> room.toBuilder()
+                        .participantCount(liveCounts.getOrDefault(room.getRoomId(), room.getParticipantCount()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
     private ChatRoomResponse convertToResponse(ChatRoom chatRoom) {
         return ChatRoomResponse.builder()
                 .id(chatRoom.getId())
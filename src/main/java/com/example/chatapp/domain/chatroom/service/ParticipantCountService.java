@@ -0,0 +1,144 @@
+package com.example.chatapp.domain.chatroom.service;
+
+import com.example.chatapp.domain.chatroom.dto.ParticipantCount;
+import com.example.chatapp.domain.chatroom.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅방 참여자 수를 Redis 카운터로 원자적으로 관리한다.
+ * 변경된 방은 dirty 셋에 기록되고, 주기적으로 chat_rooms.participant_count 에 일괄 반영된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParticipantCountService {
+
+    private static final String COUNT_KEY_PREFIX = "room:participants:";
+    private static final String DIRTY_KEY = "room:participants:dirty";
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private static final String VERSION_KEY_PREFIX = "room:participants:version:";
+
+    // 카운터와 함께 방별 변경 번호(version)를 올려 { count, version } 으로 돌려준다
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "local version = redis.call('INCR', KEYS[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[1]) " +
+            "return { count, version }",
+            List.class);
+
+    // 0 아래로 내려가지 않도록 GET 후 DECR 을 스크립트 안에서 원자적으로 수행
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DECREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local count = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if count > 0 then count = redis.call('DECR', KEYS[1]) end " +
+            "local version = redis.call('INCR', KEYS[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[1]) " +
+            "return { count, version }",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChatRoomRepository chatRoomRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ParticipantCount increment(String roomId) {
+        return toParticipantCount(redisTemplate.execute(INCREMENT_SCRIPT, keys(roomId), roomId));
+    }
+
+    public ParticipantCount decrement(String roomId) {
+        return toParticipantCount(redisTemplate.execute(DECREMENT_SCRIPT, keys(roomId), roomId));
+    }
+
+    /**
+     * 한 번의 MGET 으로 여러 방의 현재 참여자 수를 조회한다. Redis 에 값이 없는 방은 결과에 포함되지 않는다.
+     */
+    public Map<String, Integer> getCounts(Collection<String> roomIds) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (roomIds.isEmpty()) {
+            return counts;
+        }
+
+        List<String> roomIdList = List.copyOf(roomIds);
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                    .multiGet(roomIdList.stream().map(this::countKey).toList());
+            if (values == null) {
+                return counts;
+            }
+            for (int i = 0; i < roomIdList.size(); i++) {
+                String value = values.get(i);
+                if (value != null) {
+                    counts.put(roomIdList.get(i), Integer.parseInt(value));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read participant counts from Redis: {}", e.getMessage());
+        }
+        return counts;
+    }
+
+    public void remove(String roomId) {
+        try {
+            redisTemplate.delete(List.of(countKey(roomId), versionKey(roomId)));
+            redisTemplate.opsForSet().remove(DIRTY_KEY, roomId);
+        } catch (Exception e) {
+            log.warn("Failed to remove participant count for room {}: {}", roomId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.participants.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        List<String> roomIds;
+        try {
+            // SPOP 은 원자적이므로 여러 노드가 동시에 실행해도 같은 방을 중복 반영하지 않는다
+            roomIds = redisTemplate.opsForSet().pop(DIRTY_KEY, RECONCILE_BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("Failed to fetch dirty participant counts: {}", e.getMessage());
+            return;
+        }
+        if (roomIds == null || roomIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> counts = getCounts(roomIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> counts.forEach(chatRoomRepository::updateParticipantCount));
+            log.debug("Reconciled participant counts for {} rooms", counts.size());
+        } catch (Exception e) {
+            log.error("Failed to reconcile participant counts: {}", e.getMessage());
+            redisTemplate.opsForSet().add(DIRTY_KEY, roomIds.toArray(String[]::new));
+        }
+    }
+
+    private String countKey(String roomId) {
+        return COUNT_KEY_PREFIX + roomId;
+    }
+
+    private String versionKey(String roomId) {
+        return VERSION_KEY_PREFIX + roomId;
+    }
+
+    private List<String> keys(String roomId) {
+        return List.of(countKey(roomId), DIRTY_KEY, versionKey(roomId));
+    }
+
+    private static ParticipantCount toParticipantCount(List<?> result) {
+        if (result == null || result.size() < 2) {
+            return new ParticipantCount(0, 0);
+        }
+        return new ParticipantCount(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+    }
+}
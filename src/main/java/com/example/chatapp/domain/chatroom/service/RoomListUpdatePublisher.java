@@ -0,0 +1,119 @@
+package com.example.chatapp.domain.chatroom.service;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+import com.example.chatapp.domain.chatroom.dto.ParticipantCount;
+import com.example.chatapp.domain.chatroom.dto.RoomChangeType;
+import com.example.chatapp.domain.chatroom.dto.RoomListDelta;
+import com.example.chatapp.domain.chatroom.dto.RoomListDelta.RoomChange;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 목록 변경을 짧은 윈도우 동안 방 단위로 합쳐서 한 번의 delta 메시지로 브로드캐스트한다.
+ * 입장 폭주 시에도 윈도우마다 최대 한 번만 발행된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomListUpdatePublisher {
+
+    private final ClusterMessageRelay clusterMessageRelay;
+
+    private final Map<String, RoomChange> pendingChanges = new ConcurrentHashMap<>();
+
+    public void roomCreated(ChatRoomResponse room) {
+        merge(RoomChange.builder()
+                .roomId(room.getRoomId())
+                .changeType(RoomChangeType.CREATED)
+                .participantCount(room.getParticipantCount())
+                .room(room)
+                .build());
+    }
+
+    public void roomUpdated(String roomId, ParticipantCount participantCount) {
+        merge(RoomChange.builder()
+                .roomId(roomId)
+                .changeType(RoomChangeType.UPDATED)
+                .participantCount((int) participantCount.getCount())
+                .version(participantCount.getVersion())
+                .build());
+    }
+
+    public void roomDeleted(String roomId) {
+        merge(RoomChange.builder()
+                .roomId(roomId)
+                .changeType(RoomChangeType.DELETED)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${chat.roomlist.coalesce-window-ms:250}")
+    public void flush() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        List<RoomChange> changes = new ArrayList<>(pendingChanges.size());
+        for (String roomId : pendingChanges.keySet()) {
+            RoomChange change = pendingChanges.remove(roomId);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            clusterMessageRelay.sendToRoomList(RoomListDelta.builder().changes(changes).build());
+            log.debug("Room list delta broadcasted ({} rooms)", changes.size());
+        } catch (Exception e) {
+            log.error("Error broadcasting room list delta: {}", e.getMessage());
+        }
+    }
+
+    private void merge(RoomChange change) {
+        pendingChanges.merge(change.getRoomId(), change, RoomListUpdatePublisher::coalesce);
+    }
+
+    private static RoomChange coalesce(RoomChange previous, RoomChange next) {
+        if (next.getChangeType() == RoomChangeType.DELETED) {
+            return next;
+        }
+        if (previous.getChangeType() == RoomChangeType.DELETED) {
+            return previous;
+        }
+        if (next.getChangeType() == RoomChangeType.CREATED) {
+            // 생성 알림은 커밋 뒤에 오므로 그 전에 도착한 인원 변경이 있으면 그 값을 싣는다
+            return previous.getVersion() != null ? created(next, previous) : next;
+        }
+        // INCR/DECR 결과는 호출 스레드마다 순서 없이 도착하므로 version 이 더 큰 인원 수만 남긴다
+        if (previous.getVersion() != null && next.getVersion() <= previous.getVersion()) {
+            return previous;
+        }
+        if (previous.getChangeType() == RoomChangeType.CREATED) {
+            // 생성 직후 인원 변동은 CREATED 하나로 합친다
+            return created(previous, next);
+        }
+        return next;
+    }
+
+    private static RoomChange created(RoomChange created, RoomChange update) {
+        ChatRoomResponse room = created.getRoom();
+        room.setParticipantCount(update.getParticipantCount());
+        return RoomChange.builder()
+                .roomId(created.getRoomId())
+                .changeType(RoomChangeType.CREATED)
+                .participantCount(update.getParticipantCount())
+                .room(room)
+                .version(update.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.chatapp.global.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis 키(SET NX PX) 기반 리더 임대.
+ * 주기 작업을 클러스터에서 한 노드만 실행하도록 매 주기 시작 시 tryAcquire 를 호출한다.
+ * 리더는 compare-and-PEXPIRE 로 임기를 연장하고, 죽으면 임기가 끝난 뒤 다른 노드가 이어받는다.
+ */
+@Slf4j
+public class RedisLeaderLease {
+
+    // 자신이 리더일 때만 TTL 연장
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String key;
+
+    public RedisLeaderLease(RedisTemplate<String, String> redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    public boolean tryAcquire(String nodeId, long leaseMs) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), nodeId, String.valueOf(leaseMs));
+            if (renewed != null && renewed == 1) {
+                return true;
+            }
+            return Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(key, nodeId, Duration.ofMillis(leaseMs)));
+        } catch (Exception e) {
+            log.warn("Failed to acquire leader lease {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    public void release(String nodeId) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release leader lease {}: {}", key, e.getMessage());
+        }
+    }
+}
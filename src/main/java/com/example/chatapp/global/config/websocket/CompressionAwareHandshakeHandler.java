@@ -0,0 +1,37 @@
+package com.example.chatapp.global.config.websocket;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+
+/**
+ * permessage-deflate 협상을 설정으로 켜고 끌 수 있는 핸드셰이크 핸들러.
+ * 컨테이너(Tomcat)가 지원하는 확장 중 permessage-deflate 는 compressionEnabled 일 때만 수락한다.
+ * 실제 협상은 컨테이너가 하므로 CompressionAwareUpgradeStrategy 에서 함께 끈다.
+ */
+public class CompressionAwareHandshakeHandler extends DefaultHandshakeHandler {
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean compressionEnabled;
+
+    public CompressionAwareHandshakeHandler(boolean compressionEnabled) {
+        super(new CompressionAwareUpgradeStrategy(compressionEnabled));
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requestedExtensions,
+                                                                 List<WebSocketExtension> supportedExtensions) {
+        List<WebSocketExtension> extensions = super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions);
+        if (compressionEnabled) {
+            return extensions;
+        }
+        return extensions.stream()
+                .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+                .toList();
+    }
+}
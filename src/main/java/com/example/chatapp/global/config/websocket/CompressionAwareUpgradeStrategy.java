@@ -0,0 +1,50 @@
+package com.example.chatapp.global.config.websocket;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.Extension;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.web.socket.server.standard.ServerEndpointRegistration;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 컨테이너가 확장을 협상하는 단계에서 permessage-deflate 를 끈다.
+ *
+ * Tomcat 은 Spring 이 고른 확장 목록이 비어 있으면 설치된 확장 전체(permessage-deflate 포함)를
+ * 요청 헤더와 다시 협상하므로, 핸드셰이크 핸들러에서 목록을 거르는 것만으로는 압축이 꺼지지 않는다.
+ * compressionEnabled 가 false 이면 협상 결과를 항상 빈 목록으로 돌려주는 endpoint 설정으로 업그레이드한다.
+ */
+public class CompressionAwareUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+    private final boolean compressionEnabled;
+
+    public CompressionAwareUpgradeStrategy(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    @Override
+    protected void upgradeHttpToWebSocket(HttpServletRequest request, HttpServletResponse response,
+                                          ServerEndpointConfig endpointConfig, Map<String, String> pathParams)
+            throws Exception {
+        if (compressionEnabled) {
+            super.upgradeHttpToWebSocket(request, response, endpointConfig, pathParams);
+            return;
+        }
+
+        Endpoint endpoint = endpointConfig.getConfigurator().getEndpointInstance(
+                endpointConfig.getEndpointClass().asSubclass(Endpoint.class));
+        ServerEndpointRegistration withoutExtensions = new ServerEndpointRegistration(endpointConfig.getPath(), endpoint) {
+            @Override
+            public List<Extension> getNegotiatedExtensions(List<Extension> installed, List<Extension> requested) {
+                return List.of();
+            }
+        };
+        withoutExtensions.setSubprotocols(endpointConfig.getSubprotocols());
+        withoutExtensions.setExtensions(List.of());
+        super.upgradeHttpToWebSocket(request, response, withoutExtensions, pathParams);
+    }
+}
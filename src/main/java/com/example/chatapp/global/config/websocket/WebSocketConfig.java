@@ -1,9 +1,22 @@
 package com.example.chatapp.global.config.websocket;
 
+import com.example.chatapp.domain.chat.interceptor.MessageRateLimitInterceptor;
+import com.example.chatapp.domain.chat.interceptor.OutboundBatchingInterceptor;
+import com.example.chatapp.domain.chat.interceptor.PresenceHeartbeatInterceptor;
+import com.example.chatapp.domain.chat.interceptor.SlowConsumerMonitor;
+import com.example.chatapp.domain.chat.interceptor.WireFormatChannelInterceptor;
+import com.example.chatapp.global.security.interceptor.HandshakeAdmissionInterceptor;
 import com.example.chatapp.global.security.interceptor.SimpleHandshakeInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -15,18 +28,81 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final SimpleHandshakeInterceptor simpleHandshakeInterceptor;
+    private final HandshakeAdmissionInterceptor handshakeAdmissionInterceptor;
+    private final WireFormatChannelInterceptor wireFormatChannelInterceptor;
+    private final OutboundBatchingInterceptor outboundBatchingInterceptor;
+    private final SlowConsumerMonitor slowConsumerMonitor;
+    private final PresenceHeartbeatInterceptor presenceHeartbeatInterceptor;
+    private final MessageRateLimitInterceptor messageRateLimitInterceptor;
+
+    // 브로커 설정 중에 만들어지는 빈이므로 지연 주입한다
+    @Lazy
+    @Autowired
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${chat.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    // platform: 기본 스레드 풀, virtual: 메시지마다 가상 스레드
+    @Value("${chat.websocket.executor-mode:platform}")
+    private String executorMode;
+
+    @Value("${chat.websocket.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    @Value("${chat.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${chat.websocket.send-time-limit-ms:20000}")
+    private int sendTimeLimitMs;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/sub");
+        // STOMP heartbeat 를 협상해 클라이언트 heartbeat 로 접속 상태(room:presence)를 갱신한다
+        config.enableSimpleBroker("/sub")
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/pub");
+        // 멀티 스레드 outbound 에서도 세션별 전송 순서 유지
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // 한도를 넘은 프레임은 페이로드 변환 전에 버린다
+        registration.interceptors(messageRateLimitInterceptor, wireFormatChannelInterceptor,
+                outboundBatchingInterceptor, presenceHeartbeatInterceptor);
+        if (isVirtualThreadMode()) {
+            // @MessageMapping 핸들러가 Mongo/Postgres/Redis 에서 블로킹되어도 풀 고갈이 없도록 가상 스레드 사용
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // 배칭이 먼저 메시지를 모으고, 합쳐진 배열이 다시 채널을 지날 때 wire format 변환이 적용된다
+        // 느린 소비자 판단은 배칭 이후(실제 전송 프레임 단위), JSON 인 상태에서 한다
+        registration.interceptors(outboundBatchingInterceptor, slowConsumerMonitor, wireFormatChannelInterceptor);
+        if (isVirtualThreadMode()) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
+    }
+
+    private boolean isVirtualThreadMode() {
+        return "virtual".equalsIgnoreCase(executorMode);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // 세션별 inbound 메시지 처리 순서 유지 (가상 스레드 모드에서도 같은 세션의 메시지는 순차 처리)
+        registry.setPreserveReceiveOrder(true);
+        
         // 채팅용 WebSocket (JWT 인증 필요)
         registry.addEndpoint("/ws-chat")
-                .addInterceptors(simpleHandshakeInterceptor)
+                .setHandshakeHandler(new CompressionAwareHandshakeHandler(compressionEnabled))
+                // 인증으로 userId 를 확정한 뒤 사용자별 한도를 적용한다
+                .addInterceptors(simpleHandshakeInterceptor, handshakeAdmissionInterceptor)
                 .setAllowedOriginPatterns("*")
                 .withSockJS()
                 .setHeartbeatTime(30000)
@@ -44,8 +120,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 세션 버퍼 한도는 최후의 안전장치이고, 그 전에 SlowConsumerMonitor 가 shedding/disconnect 를 한다
         registration.setMessageSizeLimit(128 * 1024)
-                .setSendBufferSizeLimit(512 * 1024)
-                .setSendTimeLimit(20 * 1000);
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .addDecoratorFactory(slowConsumerMonitor);
     }
 }
\ No newline at end of file
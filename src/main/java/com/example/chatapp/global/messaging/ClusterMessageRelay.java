@@ -0,0 +1,190 @@
+package com.example.chatapp.global.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis pub/sub 기반 노드 간 브로드캐스트.
+ * simple broker 는 JVM 로컬이므로, 메시지를 로컬 구독자에게 바로 전달하고
+ * 같은 페이로드를 Redis 채널로 발행해 다른 노드의 구독자에게도 전달되게 한다.
+ * 각 노드는 로컬 세션이 구독 중인 방의 채널만 구독한다.
+ * 로컬 구독자에게 전달한 방 메시지는 출처와 관계없이 RoomMessageListener 에게도 알린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterMessageRelay implements RoomSubscriptionListener, MessageListener {
+
+    private static final String ROOM_CHANNEL_PREFIX = "chat:room:";
+    private static final String ROOM_LIST_CHANNEL = "chat:roomlist";
+    private static final String ROOM_LIST_DESTINATION = "/sub/roomlist/update";
+    private static final byte ORIGIN_SEPARATOR = '\n';
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final List<RoomMessageListener> roomMessageListeners;
+
+    @Value("${chat.cluster.enabled:true}")
+    private boolean clusterEnabled;
+
+    @Value("${chat.cluster.node-id:#{null}}")
+    private String nodeId;
+
+    private byte[] nodeIdBytes;
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        nodeIdBytes = nodeId.getBytes(StandardCharsets.UTF_8);
+        if (clusterEnabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(ROOM_LIST_CHANNEL));
+            log.info("Cluster message relay enabled (nodeId={})", nodeId);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void sendToRoom(String roomId, Object payload) {
+        sendToRoom(roomId, payload, toJson(payload));
+    }
+
+    /**
+     * payload 를 이미 인코딩한 JSON 을 그대로 사용한다. 로컬 구독자 전체와 Redis 발행이 같은 byte[] 를 공유한다.
+     */
+    public void sendToRoom(String roomId, Object payload, byte[] json) {
+        deliverLocally(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX + roomId, json, MimeTypeUtils.APPLICATION_JSON);
+        for (RoomMessageListener listener : roomMessageListeners) {
+            try {
+                listener.onLocalRoomMessage(roomId, payload);
+            } catch (Exception e) {
+                log.error("Error notifying room message listener: {}", e.getMessage());
+            }
+        }
+        publish(ROOM_CHANNEL_PREFIX + roomId, json);
+    }
+
+    public void sendToRoomList(Object payload) {
+        byte[] json = toJson(payload);
+        deliverLocally(ROOM_LIST_DESTINATION, json, MimeTypeUtils.APPLICATION_JSON);
+        publish(ROOM_LIST_CHANNEL, json);
+    }
+
+    @Override
+    public void onRoomActivated(String roomId) {
+        if (clusterEnabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(ROOM_CHANNEL_PREFIX + roomId));
+        }
+    }
+
+    @Override
+    public void onRoomDeactivated(String roomId) {
+        if (clusterEnabled) {
+            listenerContainer.removeMessageListener(this, new ChannelTopic(ROOM_CHANNEL_PREFIX + roomId));
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            byte[] body = message.getBody();
+
+            int separator = indexOf(body, ORIGIN_SEPARATOR);
+            if (separator < 0) {
+                log.warn("Malformed cluster message on channel {}", channel);
+                return;
+            }
+            // 자기 자신이 발행한 메시지는 이미 로컬로 전달했다
+            if (Arrays.equals(body, 0, separator, nodeIdBytes, 0, nodeIdBytes.length)) {
+                return;
+            }
+            byte[] payload = Arrays.copyOfRange(body, separator + 1, body.length);
+
+            if (ROOM_LIST_CHANNEL.equals(channel)) {
+                deliverLocally(ROOM_LIST_DESTINATION, payload, MimeTypeUtils.APPLICATION_JSON);
+            } else if (channel.startsWith(ROOM_CHANNEL_PREFIX)) {
+                String roomId = channel.substring(ROOM_CHANNEL_PREFIX.length());
+                deliverLocally(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX + roomId, payload,
+                        MimeTypeUtils.APPLICATION_JSON);
+                for (RoomMessageListener listener : roomMessageListeners) {
+                    try {
+                        listener.onRelayedRoomMessage(roomId, payload);
+                    } catch (Exception e) {
+                        log.error("Error notifying room message listener: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error relaying cluster message: {}", e.getMessage());
+        }
+    }
+
+    private void publish(String channel, byte[] payload) {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            byte[] body = new byte[nodeIdBytes.length + 1 + payload.length];
+            System.arraycopy(nodeIdBytes, 0, body, 0, nodeIdBytes.length);
+            body[nodeIdBytes.length] = ORIGIN_SEPARATOR;
+            System.arraycopy(payload, 0, body, nodeIdBytes.length + 1, payload.length);
+
+            byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, body));
+        } catch (Exception e) {
+            log.error("Error publishing to cluster channel {}: {}", channel, e.getMessage());
+        }
+    }
+
+    // 페이로드 byte[] 는 브로커가 구독자별 메시지에 그대로 공유하므로 한 번만 인코딩된다
+    private void deliverLocally(String destination, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize broadcast payload", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.chatapp.global.messaging;
+
+/**
+ * 이 노드의 구독자에게 채팅방 메시지가 전달될 때마다 호출된다.
+ * 이 노드에서 보낸 메시지와 다른 노드에서 중계된 메시지가 모두 전달된다.
+ * 리스너마다 따로 호출되므로 한 리스너가 예외를 던져도 나머지 리스너는 계속 받는다.
+ */
+public interface RoomMessageListener {
+
+    /**
+     * 이 노드에서 보낸 메시지. payload 는 인코딩 전 객체다.
+     */
+    void onLocalRoomMessage(String roomId, Object payload);
+
+    /**
+     * 다른 노드에서 중계된 메시지의 JSON.
+     */
+    void onRelayedRoomMessage(String roomId, byte[] json);
+}
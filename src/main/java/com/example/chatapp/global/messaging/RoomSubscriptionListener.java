@@ -0,0 +1,11 @@
+package com.example.chatapp.global.messaging;
+
+/**
+ * 이 노드에서 채팅방 구독이 처음 생기거나 마지막으로 사라질 때 호출된다.
+ */
+public interface RoomSubscriptionListener {
+
+    void onRoomActivated(String roomId);
+
+    void onRoomDeactivated(String roomId);
+}
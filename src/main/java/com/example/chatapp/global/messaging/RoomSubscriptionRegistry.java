@@ -0,0 +1,183 @@
+package com.example.chatapp.global.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로컬 STOMP 세션의 /sub/room/{roomId} 구독을 방 단위로 참조 카운팅한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSubscriptionRegistry {
+
+    public static final String ROOM_DESTINATION_PREFIX = "/sub/room/";
+
+    private final List<RoomSubscriptionListener> listeners;
+
+    // sessionId -> (subscriptionId -> roomId)
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    // roomId -> 로컬 구독 수
+    private final Map<String, RoomSubscriptions> roomSubscriptions = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = headerAccessor.getDestination();
+        String sessionId = headerAccessor.getSessionId();
+        String subscriptionId = headerAccessor.getSubscriptionId();
+
+        if (destination == null || sessionId == null || subscriptionId == null
+                || !destination.startsWith(ROOM_DESTINATION_PREFIX)) {
+            return;
+        }
+
+        String roomId = destination.substring(ROOM_DESTINATION_PREFIX.length());
+        String previous = sessionSubscriptions
+                .computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, roomId);
+        if (previous != null) {
+            release(previous);
+        }
+        acquire(roomId);
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessionSubscriptions.get(headerAccessor.getSessionId());
+        if (subscriptions == null || headerAccessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String roomId = subscriptions.remove(headerAccessor.getSubscriptionId());
+        if (roomId != null) {
+            release(roomId);
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    public int getLocalSubscriptionCount(String roomId) {
+        RoomSubscriptions room = roomSubscriptions.get(roomId);
+        return room != null ? room.count : 0;
+    }
+
+    public Set<String> getActiveRooms() {
+        return Set.copyOf(roomSubscriptions.keySet());
+    }
+
+    /**
+     * 세션이 해당 방에 가진 구독 ID 를 찾는다. 없으면 null.
+     */
+    public String findSubscriptionId(String sessionId, String roomId) {
+        Map<String, String> subscriptions = sessionSubscriptions.get(sessionId);
+        if (subscriptions == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : subscriptions.entrySet()) {
+            if (entry.getValue().equals(roomId)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    public int getActiveRoomCount() {
+        return roomSubscriptions.size();
+    }
+
+    public int getSessionCount() {
+        return sessionSubscriptions.size();
+    }
+
+    public int getTotalSubscriptionCount() {
+        int total = 0;
+        for (RoomSubscriptions room : roomSubscriptions.values()) {
+            total += room.count;
+        }
+        return total;
+    }
+
+    /**
+     * 리스너 알림(Redis 구독/해제)은 네트워크 I/O 이므로 ConcurrentHashMap 의 compute 안에서 하지 않고,
+     * 방마다 따로 둔 모니터 안에서 한다. 같은 방의 활성화와 비활성화 알림은 이 모니터로 순서가 정해진다.
+     */
+    private void acquire(String roomId) {
+        while (true) {
+            RoomSubscriptions room = roomSubscriptions.computeIfAbsent(roomId, id -> new RoomSubscriptions());
+            synchronized (room) {
+                // 마지막 구독이 풀리며 map 에서 빠진 객체면 새로 만든다
+                if (room.retired) {
+                    continue;
+                }
+                if (room.count++ == 0) {
+                    notifyActivated(roomId);
+                }
+                return;
+            }
+        }
+    }
+
+    private void release(String roomId) {
+        RoomSubscriptions room = roomSubscriptions.get(roomId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            if (room.retired || --room.count > 0) {
+                return;
+            }
+            // 비활성화 알림이 끝난 뒤에 map 에서 빼야, 그동안 들어온 구독이 기다렸다가 새로 활성화한다
+            notifyDeactivated(roomId);
+            room.retired = true;
+            roomSubscriptions.remove(roomId, room);
+        }
+    }
+
+    private void notifyActivated(String roomId) {
+        log.debug("Room {} activated on this node", roomId);
+        for (RoomSubscriptionListener listener : listeners) {
+            try {
+                listener.onRoomActivated(roomId);
+            } catch (Exception e) {
+                log.error("Error notifying room activation for {}: {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    private void notifyDeactivated(String roomId) {
+        log.debug("Room {} deactivated on this node", roomId);
+        for (RoomSubscriptionListener listener : listeners) {
+            try {
+                listener.onRoomDeactivated(roomId);
+            } catch (Exception e) {
+                log.error("Error notifying room deactivation for {}: {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    private static final class RoomSubscriptions {
+
+        private volatile int count;
+        private boolean retired;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.chatapp.global.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+
+/**
+ * 브로커를 거치지 않고 특정 세션의 특정 구독으로 MESSAGE 프레임을 직접 보낸다.
+ */
+@Slf4j
+@Component
+public class SessionMessageSender {
+
+    private final MessageChannel clientOutboundChannel;
+    private final ObjectMapper objectMapper;
+
+    public SessionMessageSender(@Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                ObjectMapper objectMapper) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.objectMapper = objectMapper;
+    }
+
+    public void send(String sessionId, String subscriptionId, String destination,
+                     Object payload, Map<String, String> nativeHeaders) {
+        try {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setDestination(destination);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            nativeHeaders.forEach(accessor::setNativeHeader);
+            accessor.setLeaveMutable(true);
+
+            byte[] body = objectMapper.writeValueAsBytes(payload);
+            clientOutboundChannel.send(MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Error sending message to session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * STOMP ERROR 프레임을 보낸다. 프레임 전송 후 서버가 연결을 닫는다.
+     */
+    public void sendError(String sessionId, String message, Map<String, String> nativeHeaders) {
+        try {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+            accessor.setSessionId(sessionId);
+            accessor.setMessage(message);
+            nativeHeaders.forEach(accessor::setNativeHeader);
+            accessor.setLeaveMutable(true);
+
+            clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Error sending error frame to session {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
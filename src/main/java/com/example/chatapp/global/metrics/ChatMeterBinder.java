@@ -0,0 +1,103 @@
+package com.example.chatapp.global.metrics;
+
+import com.example.chatapp.domain.chat.interceptor.SlowConsumerMonitor;
+import com.example.chatapp.domain.chat.service.ChatMessageBatchWriter;
+import com.example.chatapp.domain.chatroom.service.ChatRoomCache;
+import com.example.chatapp.global.messaging.RoomSubscriptionRegistry;
+import com.example.chatapp.global.security.interceptor.HandshakeAdmissionInterceptor;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 이미 각 컴포넌트가 들고 있는 카운터와 크기 정보를 gauge / function counter 로 노출한다.
+ * 스크레이프 시점에만 읽으므로 처리 경로에는 비용이 없다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMeterBinder implements MeterBinder {
+
+    private final ChatMessageBatchWriter chatMessageBatchWriter;
+    private final ChatRoomCache chatRoomCache;
+    private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+    private final SlowConsumerMonitor slowConsumerMonitor;
+    private final HandshakeAdmissionInterceptor handshakeAdmissionInterceptor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chat.sessions.active", slowConsumerMonitor, SlowConsumerMonitor::getSessionCount)
+                .description("Open WebSocket sessions on this node")
+                .register(registry);
+        Gauge.builder("chat.sessions.subscribed", roomSubscriptionRegistry, RoomSubscriptionRegistry::getSessionCount)
+                .description("Sessions with at least one room subscription")
+                .register(registry);
+        Gauge.builder("chat.subscriptions.active", roomSubscriptionRegistry,
+                        RoomSubscriptionRegistry::getTotalSubscriptionCount)
+                .description("Room subscriptions on this node")
+                .register(registry);
+        Gauge.builder("chat.rooms.active", roomSubscriptionRegistry, RoomSubscriptionRegistry::getActiveRoomCount)
+                .description("Rooms with at least one local subscriber")
+                .register(registry);
+        Gauge.builder("chat.handshake.in_flight", handshakeAdmissionInterceptor,
+                        HandshakeAdmissionInterceptor::getInFlightCount)
+                .description("Admitted connections that have not finished joining")
+                .register(registry);
+        Gauge.builder("chat.handshake.queued", handshakeAdmissionInterceptor,
+                        HandshakeAdmissionInterceptor::getQueuedCount)
+                .description("Handshakes waiting for an admission permit")
+                .register(registry);
+        counter(registry, "chat.slow_consumer.dropped", slowConsumerMonitor,
+                SlowConsumerMonitor::getDroppedFrameCount, "Frames dropped for lagging sessions");
+        counter(registry, "chat.slow_consumer.disconnects", slowConsumerMonitor,
+                SlowConsumerMonitor::getDisconnectCount, "Sessions closed for exceeding the hard lag limit");
+
+        Gauge.builder("chat.persistence.queue.size", chatMessageBatchWriter, ChatMessageBatchWriter::getQueueSize)
+                .description("Messages waiting for the write-behind flush")
+                .register(registry);
+        Gauge.builder("chat.persistence.queue.remaining", chatMessageBatchWriter,
+                        ChatMessageBatchWriter::getRemainingCapacity)
+                .register(registry);
+        counter(registry, "chat.persistence.enqueued", chatMessageBatchWriter,
+                ChatMessageBatchWriter::getEnqueuedCount, "Messages accepted by the write-behind queue");
+        counter(registry, "chat.persistence.written", chatMessageBatchWriter,
+                ChatMessageBatchWriter::getWrittenCount, "Messages written to the database");
+        counter(registry, "chat.persistence.failed", chatMessageBatchWriter,
+                ChatMessageBatchWriter::getFailedCount, "Messages dropped after retries and per-message writes failed");
+        counter(registry, "chat.persistence.overflow", chatMessageBatchWriter,
+                ChatMessageBatchWriter::getOverflowCount, "Messages written synchronously because the queue was full");
+        counter(registry, "chat.persistence.batches", chatMessageBatchWriter,
+                ChatMessageBatchWriter::getBatchCount, "Batch writes executed");
+
+        bindCache(registry, "room", chatRoomCache::getRoomCacheStats);
+        bindCache(registry, "room_list", chatRoomCache::getRoomListCacheStats);
+        Gauge.builder("chat.cache.size", chatRoomCache, ChatRoomCache::getRoomCacheSize)
+                .tag("cache", "room")
+                .register(registry);
+    }
+
+    private void bindCache(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("chat.cache.requests", stats, s -> s.get().hitCount())
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", stats, s -> s.get().missCount())
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.evictions", stats, s -> s.get().evictionCount())
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    private <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                             String description) {
+        FunctionCounter.builder(name, source, value)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.chatapp.global.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 처리 경로의 단계별 지연, 오류, 방별 메시지 수를 기록한다.
+ * 미터는 미리 등록해 두고 호출 경로에서는 조회 없이 기록만 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMetrics {
+
+    // BUILD 는 SANITIZE 를 포함하지 않고, PERSIST 는 flusher 스레드의 bulk 저장 한 번(재시도 포함 각 시도)이다
+    public enum Stage {
+        BUILD, SANITIZE, PERSIST, BROADCAST, ACTIVITY;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private static final String OTHER_ROOM = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.metrics.histogram-enabled:true}")
+    private boolean histogramEnabled;
+
+    // 방 ID 를 태그로 쓰면 시계열이 방 수만큼 늘어나므로 상한을 넘으면 other 로 합친다
+    @Value("${chat.metrics.max-room-tags:100}")
+    private int maxRoomTags;
+
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter[] stageErrors = new Counter[Stage.values().length];
+    private final Map<String, Counter> roomCounters = new ConcurrentHashMap<>();
+    private Timer processTimer;
+    private Counter processErrors;
+    private Counter otherRoomCounter;
+    private Counter userRateLimited;
+    private Counter roomRateLimited;
+    private Counter handshakesAdmitted;
+    private final Map<String, Counter> handshakesRejected = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = timer("chat.message.stage")
+                    .description("Time spent in each stage of message processing")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry);
+            stageErrors[stage.ordinal()] = Counter.builder("chat.errors")
+                    .description("Failures swallowed on the message path")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry);
+        }
+        processTimer = timer("chat.message.process")
+                .description("End-to-end time of processMessage")
+                .register(meterRegistry);
+        processErrors = Counter.builder("chat.errors")
+                .description("Failures swallowed on the message path")
+                .tag("stage", "process")
+                .register(meterRegistry);
+        otherRoomCounter = roomCounter(OTHER_ROOM);
+        userRateLimited = rateLimitCounter("user");
+        roomRateLimited = rateLimitCounter("room");
+        handshakesAdmitted = handshakeCounter("admitted", "none");
+        for (String reason : new String[]{"ip", "user", "capacity"}) {
+            handshakesRejected.put(reason, handshakeCounter("rejected", reason));
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 단계 시간을 기록하고 기록한 시간(ns)을 돌려준다.
+     */
+    public long record(Stage stage, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        stageTimers[stage.ordinal()].record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    public void recordProcess(long startNanos) {
+        processTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void error(Stage stage) {
+        stageErrors[stage.ordinal()].increment();
+    }
+
+    public void processError() {
+        processErrors.increment();
+    }
+
+    public void roomMessage(String roomId) {
+        if (roomId == null) {
+            return;
+        }
+        Counter counter = roomCounters.get(roomId);
+        if (counter == null) {
+            counter = roomCounters.size() < maxRoomTags
+                    ? roomCounters.computeIfAbsent(roomId, this::roomCounter)
+                    : otherRoomCounter;
+        }
+        counter.increment();
+    }
+
+    public void rateLimited(String scope) {
+        ("room".equals(scope) ? roomRateLimited : userRateLimited).increment();
+    }
+
+    public void handshakeAdmitted() {
+        handshakesAdmitted.increment();
+    }
+
+    public void handshakeRejected(String reason) {
+        handshakesRejected.computeIfAbsent(reason, r -> handshakeCounter("rejected", r)).increment();
+    }
+
+    private Counter handshakeCounter(String result, String reason) {
+        return Counter.builder("chat.handshake.admission")
+                .description("WebSocket handshakes admitted or rejected by admission control")
+                .tags("result", result, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    private Counter rateLimitCounter(String scope) {
+        return Counter.builder("chat.ratelimit.rejected")
+                .description("Messages rejected by the inbound rate limiter")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private Counter roomCounter(String roomId) {
+        return Counter.builder("chat.room.messages")
+                .description("Messages processed per room")
+                .tag("room", roomId)
+                .register(meterRegistry);
+    }
+
+    private Timer.Builder timer(String name) {
+        // 버킷 범위를 좁혀 히스토그램 시계열 수를 제한한다
+        return Timer.builder(name)
+                .publishPercentileHistogram(histogramEnabled)
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(2));
+    }
+}
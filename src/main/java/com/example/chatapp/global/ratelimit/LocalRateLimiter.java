@@ -0,0 +1,67 @@
+package com.example.chatapp.global.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키별 token bucket 을 JVM 안에서 관리한다.
+ *
+ * GCRA 로 구현해 버킷마다 다음 토큰이 허용되는 이론적 시각(nanoTime) 하나만 저장하고,
+ * 판정은 AtomicLong CAS 로 처리한다. 오래 쓰이지 않은 버킷은 가득 찬 버킷과 같으므로 캐시에서 버린다.
+ */
+public class LocalRateLimiter {
+
+    private final long intervalNanos;
+    private final long limitNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalRateLimiter(double ratePerSecond, int burst, long maximumKeys) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.limitNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofNanos(limitNanos).plusSeconds(1))
+                .build();
+    }
+
+    /**
+     * 토큰 하나를 가져간다. 허용되면 0, 아니면 기다려야 할 시간(ns)을 돌려준다.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - now - limitNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 가져간 토큰을 돌려준다. 다른 한도에 걸려 실제로 쓰이지 않은 경우에 사용한다.
+     */
+    public void refund(String key) {
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos);
+        }
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public long getLimitNanos() {
+        return limitNanos;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.chatapp.global.security.interceptor;
+
+import com.example.chatapp.global.metrics.ChatMetrics;
+import com.example.chatapp.global.ratelimit.LocalRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 재연결 폭주 시 핸드셰이크를 받아들이는 속도를 제한한다.
+ *
+ * 핸드셰이크부터 STOMP CONNECT 후 입장 처리가 끝날 때까지를 하나의 허가로 보고 동시에 max-concurrent 개만 진행한다.
+ * 허가가 없으면 queue-timeout-ms 동안 기다리고(대기자는 max-queued 명까지), 그래도 없으면 503 으로 거절한다.
+ * IP 별, 사용자별 핸드셰이크 빈도는 token bucket 으로 제한해 429 로 거절한다.
+ * 거절 응답의 Retry-After 에는 지터를 더해 클라이언트 재시도가 한 시점에 몰리지 않게 한다.
+ * 허가는 connect 이벤트 처리가 끝날 때, 연결이 끊길 때, 업그레이드가 실패할 때, hold-timeout 이 지날 때 중 먼저 오는 시점에 반납된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HandshakeAdmissionInterceptor implements HandshakeInterceptor {
+
+    public static final String ADMISSION_TICKET_ATTRIBUTE = "admissionTicket";
+
+    private final ChatMetrics chatMetrics;
+
+    @Value("${chat.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.admission.max-concurrent:200}")
+    private int maxConcurrent;
+
+    @Value("${chat.admission.max-queued:200}")
+    private int maxQueued;
+
+    @Value("${chat.admission.queue-timeout-ms:500}")
+    private long queueTimeoutMs;
+
+    // CONNECT 가 오지 않는 세션이 허가를 계속 잡고 있지 않도록 이 시간이 지나면 반납한다
+    @Value("${chat.admission.hold-timeout-ms:10000}")
+    private long holdTimeoutMs;
+
+    @Value("${chat.admission.per-ip.rate-per-second:5}")
+    private double perIpRatePerSecond;
+
+    @Value("${chat.admission.per-ip.burst:20}")
+    private int perIpBurst;
+
+    @Value("${chat.admission.per-user.rate-per-second:1}")
+    private double perUserRatePerSecond;
+
+    @Value("${chat.admission.per-user.burst:5}")
+    private int perUserBurst;
+
+    @Value("${chat.admission.maximum-keys:100000}")
+    private long maximumKeys;
+
+    @Value("${chat.admission.retry-after-ms:2000}")
+    private long retryAfterMs;
+
+    @Value("${chat.admission.retry-after-jitter-ms:3000}")
+    private long retryAfterJitterMs;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private Semaphore permits;
+    private LocalRateLimiter ipLimiter;
+    private LocalRateLimiter userLimiter;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(maxConcurrent);
+        ipLimiter = new LocalRateLimiter(perIpRatePerSecond, perIpBurst, maximumKeys);
+        userLimiter = new LocalRateLimiter(perUserRatePerSecond, perUserBurst, maximumKeys);
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "handshake-admission");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 정상 반납된 허가의 타임아웃 작업이 큐에 쌓이지 않게 한다
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 인증 인터셉터 뒤에 등록되어 attributes 에 userId 가 들어 있다고 가정한다.
+     */
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
+        if (!enabled) {
+            return true;
+        }
+
+        String clientIp = clientIp(request);
+        if (clientIp != null && ipLimiter.tryAcquire(clientIp) > 0) {
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS, "ip", clientIp);
+        }
+        Object userId = attributes.get("userId");
+        if (userId instanceof String user && userLimiter.tryAcquire(user) > 0) {
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS, "user", user);
+        }
+
+        if (!acquirePermit()) {
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE, "capacity", clientIp);
+        }
+
+        Ticket ticket = new Ticket();
+        ticket.timeout = scheduler.schedule(ticket::release, holdTimeoutMs, TimeUnit.MILLISECONDS);
+        attributes.put(ADMISSION_TICKET_ATTRIBUTE, ticket);
+        // afterHandshake 는 attributes 를 받지 않으므로 요청 속성에도 남겨 둔다
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(ADMISSION_TICKET_ATTRIBUTE, ticket);
+        }
+        chatMetrics.handshakeAdmitted();
+        return true;
+    }
+
+    /**
+     * 업그레이드가 예외나 오류 응답으로 끝났으면 세션이 만들어지지 않으므로 허가를 바로 반납한다.
+     */
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Object ticket = servletRequest.getServletRequest().getAttribute(ADMISSION_TICKET_ATTRIBUTE);
+        servletRequest.getServletRequest().removeAttribute(ADMISSION_TICKET_ATTRIBUTE);
+        if (ticket instanceof Ticket admitted && handshakeFailed(response, exception)) {
+            admitted.release();
+        }
+    }
+
+    /**
+     * 세션의 연결 처리가 끝났을 때 허가를 반납한다. 여러 번 호출해도 한 번만 반납된다.
+     */
+    public void release(Map<String, Object> attributes) {
+        if (attributes != null && attributes.get(ADMISSION_TICKET_ATTRIBUTE) instanceof Ticket ticket) {
+            ticket.release();
+        }
+    }
+
+    // 입장 처리를 하는 connect 리스너가 모두 끝난 뒤에 반납되도록 가장 늦게 실행한다
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void handleConnected(SessionConnectedEvent event) {
+        release(SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders()));
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        release(SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders()));
+    }
+
+    public int getInFlightCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    private boolean acquirePermit() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queueTimeoutMs <= 0) {
+            return false;
+        }
+        // 대기도 서블릿 스레드를 잡고 있으므로 대기자 수를 제한한다
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private boolean reject(ServerHttpResponse response, HttpStatus status, String reason, String key) {
+        long retryAfter = retryAfterMs + ThreadLocalRandom.current().nextLong(retryAfterJitterMs + 1);
+        response.setStatusCode(status);
+        // Retry-After 는 초 단위
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(TimeUnit.MILLISECONDS.toSeconds(retryAfter + 999)));
+        chatMetrics.handshakeRejected(reason);
+        log.debug("Handshake rejected ({}): {}", reason, key);
+        return false;
+    }
+
+    // SockJS HTTP 전송은 200, WebSocket 업그레이드는 101 로 끝나므로 오류 상태 코드만 실패로 본다
+    private static boolean handshakeFailed(ServerHttpResponse response, Exception exception) {
+        if (exception != null) {
+            return true;
+        }
+        return response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getStatus() >= 400;
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        // 프록시 뒤에서는 server.forward-headers-strategy 설정으로 원래 주소가 반영된다
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getHostAddress();
+    }
+
+    private final class Ticket {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+
+        void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            permits.release();
+            ScheduledFuture<?> future = timeout;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.chatapp.global.security.interceptor;
 
 import com.example.chatapp.global.security.service.JwtService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.server.ServerHttpRequest;
@@ -30,12 +31,14 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
             return false;
         }
 
-        if (!jwtService.validateToken(token)) {
+        // 서명 검증과 claims 추출을 한 번의 파싱으로 처리
+        Claims claims = jwtService.verifyAndExtract(token);
+        if (claims == null) {
             log.warn("Invalid JWT token in handshake request");
             return false;
         }
 
-        String userId = jwtService.extractUserId(token);
+        String userId = claims.getSubject();
         if (userId == null) {
             log.warn("Unable to extract user ID from token");
             return false;
@@ -17,6 +17,9 @@ import java.util.Map;
 @Component
 public class SimpleHandshakeInterceptor implements HandshakeInterceptor {
 
+    // SockJS 가 아닌 네이티브 WebSocket 전송 여부 (바이너리 프레임 사용 가능 여부)
+    public static final String NATIVE_WEBSOCKET_ATTRIBUTE = "nativeWebSocket";
+
     @Override
     public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                    WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
@@ -41,6 +44,7 @@ public class SimpleHandshakeInterceptor implements HandshakeInterceptor {
         attributes.put("userId", decodedUsername);
         attributes.put("username", decodedUsername);
         attributes.put("roomId", roomId);
+        attributes.put(NATIVE_WEBSOCKET_ATTRIBUTE, isNativeWebSocket(request));
 
         log.info("WebSocket handshake successful for user: {} in room: {}", decodedUsername, roomId);
         return true;
@@ -54,6 +58,11 @@ public class SimpleHandshakeInterceptor implements HandshakeInterceptor {
         }
     }
 
+    // SockJS 엔드포인트의 raw WebSocket 경로는 {endpoint}/websocket, SockJS 전송은 {endpoint}/{server}/{session}/{transport}
+    private boolean isNativeWebSocket(ServerHttpRequest request) {
+        return request.getURI().getPath().endsWith("/ws-chat/websocket");
+    }
+
     private String extractUsername(ServerHttpRequest request) {
         Map<String, List<String>> queryParams = UriComponentsBuilder
                 .fromUri(request.getURI())
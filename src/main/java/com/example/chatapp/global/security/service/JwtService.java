@@ -1,15 +1,21 @@
 package com.example.chatapp.global.security.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Slf4j
@@ -22,8 +28,50 @@ public class JwtService {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    // 키와 파서는 불변/스레드 안전하므로 최초 사용 시 한 번만 생성한다
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+    private Cache<String, Claims> verifiedTokens;
+
+    private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            synchronized (this) {
+                key = signingKey;
+                if (key == null) {
+                    key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    signingKey = key;
+                }
+            }
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            synchronized (this) {
+                parser = jwtParser;
+                if (parser == null) {
+                    parser = Jwts.parser()
+                            .verifyWith(getSigningKey())
+                            .build();
+                    jwtParser = parser;
+                }
+            }
+        }
+        return parser;
+    }
+
+    @PostConstruct
+    public void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     public String generateToken(String userId) {
@@ -32,22 +80,48 @@ public class JwtService {
 
     private String createToken(String subject) {
         return Jwts.builder()
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .subject(subject)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
-    public Boolean validateToken(String token) {
+    /**
+     * 서명과 만료를 한 번에 검증하고 claims 를 반환한다. 유효하지 않으면 null.
+     * 검증된 토큰은 만료 시각까지 캐싱되어 재연결 시 다시 파싱하지 않는다.
+     */
+    public Claims verifyAndExtract(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedTokens.invalidate(token);
+            return null;
+        }
+
         try {
-            return !isTokenExpired(token);
+            Claims claims = getParser().parseSignedClaims(token).getPayload();
+            if (isExpired(claims)) {
+                return null;
+            }
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    public Boolean validateToken(String token) {
+        return verifyAndExtract(token) != null;
+    }
+
     public String extractUserId(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -57,19 +131,38 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        final Claims claims = verifyAndExtract(token);
+        return claims != null ? claimsResolver.apply(claims) : null;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // 캐시 항목이 토큰의 exp 시각에 맞춰 만료되도록 한다
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        private static final long NO_EXPIRATION_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return NO_EXPIRATION_TTL_NANOS;
+            }
+            long remainingMillis = exp.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.example.chatapp.domain.chat.interceptor;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * soft 한도에서의 채팅 메시지 버림과 요약 알림, hard 한도(개수/대기 시간)에서의 resume-seq 연결 종료를 확인한다.
+ * 전송 완료는 decorate 가 delegate 에 넘긴 추적 세션으로 MESSAGE 프레임을 보내 흉내 낸다.
+ */
+class SlowConsumerMonitorTest {
+
+    private static final String SESSION_ID = "session-1";
+    private static final String SUBSCRIPTION_ID = "sub-0";
+    private static final String DESTINATION = "/sub/room/room-1";
+
+    private final SessionMessageSender sessionMessageSender = mock(SessionMessageSender.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final SlowConsumerMonitor monitor = new SlowConsumerMonitor(sessionMessageSender);
+
+    private WebSocketSession trackingSession;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(monitor, "softLagMessages", 2);
+        ReflectionTestUtils.setField(monitor, "hardLagMessages", 4);
+        ReflectionTestUtils.setField(monitor, "hardLagMs", 60_000L);
+        ReflectionTestUtils.setField(monitor, "shedMode", "summarize");
+
+        when(session.getId()).thenReturn(SESSION_ID);
+        WebSocketHandler delegate = mock(WebSocketHandler.class);
+        monitor.decorate(delegate).afterConnectionEstablished(session);
+
+        ArgumentCaptor<WebSocketSession> captor = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(delegate).afterConnectionEstablished(captor.capture());
+        trackingSession = captor.getValue();
+    }
+
+    @Test
+    void admitsMessagesBelowSoftLimit() {
+        Message<?> first = roomMessage(1, "CHAT");
+        Message<?> second = roomMessage(2, "CHAT");
+
+        assertThat(monitor.preSend(first, null)).isSameAs(first);
+        assertThat(monitor.preSend(second, null)).isSameAs(second);
+        assertThat(monitor.getWorstLaggingSessions(1).get(0).getPendingMessages()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsChatMessagesButKeepsSystemMessagesAtSoftLimit() {
+        monitor.preSend(roomMessage(1, "CHAT"), null);
+        monitor.preSend(roomMessage(2, "CHAT"), null);
+
+        assertThat(monitor.preSend(roomMessage(3, "CHAT"), null)).isNull();
+        Message<?> join = roomMessage(4, "JOIN");
+        assertThat(monitor.preSend(join, null)).isSameAs(join);
+        assertThat(monitor.getDroppedFrameCount()).isEqualTo(1);
+        assertThat(monitor.getWorstLaggingSessions(1).get(0).getDroppedMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void summarizesSkippedMessagesOnceLagRecovers() throws Exception {
+        monitor.preSend(roomMessage(1, "CHAT"), null);
+        monitor.preSend(roomMessage(2, "CHAT"), null);
+        monitor.preSend(roomMessage(3, "CHAT"), null);
+        monitor.preSend(roomMessage(4, "CHAT"), null);
+
+        deliverFrame();
+        monitor.preSend(roomMessage(5, "CHAT"), null);
+
+        verify(sessionMessageSender).send(eq(SESSION_ID), eq(SUBSCRIPTION_ID), eq(DESTINATION),
+                argThat(payload -> ((ChatMessageResponse) payload).getMessage().contains("2개")), eq(Map.of()));
+
+        // 알린 뒤에는 다시 알리지 않는다
+        deliverFrame();
+        monitor.preSend(roomMessage(6, "CHAT"), null);
+        verify(sessionMessageSender, times(1)).send(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void disconnectsAtHardLimitWithResumeSeqBeforeOldestPendingMessage() throws Exception {
+        ReflectionTestUtils.setField(monitor, "softLagMessages", 100);
+        monitor.preSend(roomMessage(1, "CHAT"), null);
+        monitor.preSend(roomMessage(2, "CHAT"), null);
+        deliverFrame();
+        deliverFrame();
+        for (long seq = 3; seq <= 6; seq++) {
+            monitor.preSend(roomMessage(seq, "CHAT"), null);
+        }
+
+        assertThat(monitor.preSend(roomMessage(7, "CHAT"), null)).isNull();
+        // 연결을 닫는 중에는 더 받지 않고 다시 닫지도 않는다
+        assertThat(monitor.preSend(roomMessage(8, "SYSTEM"), null)).isNull();
+
+        verify(session, times(1)).close(new CloseStatus(SlowConsumerMonitor.SLOW_CONSUMER_CLOSE_CODE,
+                "slow-consumer;" + SlowConsumerMonitor.RESUME_SEQ_REASON + "2"));
+        assertThat(monitor.getDisconnectCount()).isEqualTo(1);
+    }
+
+    @Test
+    void disconnectsWhenOldestPendingFrameExceedsHardLagMs() throws Exception {
+        ReflectionTestUtils.setField(monitor, "hardLagMs", 50L);
+        monitor.preSend(roomMessage(10, "CHAT"), null);
+
+        Thread.sleep(100);
+
+        assertThat(monitor.preSend(roomMessage(11, "CHAT"), null)).isNull();
+        verify(session).close(new CloseStatus(SlowConsumerMonitor.SLOW_CONSUMER_CLOSE_CODE,
+                "slow-consumer;" + SlowConsumerMonitor.RESUME_SEQ_REASON + "9"));
+    }
+
+    @Test
+    void ignoresSessionsAfterConnectionClosed() throws Exception {
+        WebSocketHandler delegate = mock(WebSocketHandler.class);
+        monitor.decorate(delegate).afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        for (long seq = 1; seq <= 10; seq++) {
+            Message<?> message = roomMessage(seq, "CHAT");
+            assertThat(monitor.preSend(message, null)).isSameAs(message);
+        }
+        assertThat(monitor.getSessionCount()).isZero();
+        verify(session, never()).close(any());
+    }
+
+    private void deliverFrame() throws Exception {
+        trackingSession.sendMessage(new TextMessage("MESSAGE\ndestination:" + DESTINATION + "\n\n{}\u0000"));
+    }
+
+    private static Message<byte[]> roomMessage(long seq, String messageType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setSubscriptionId(SUBSCRIPTION_ID);
+        accessor.setDestination(DESTINATION);
+        String json = "{\"roomId\":\"room-1\",\"seq\":" + seq + ",\"message\":\"hi\",\"messageType\":\"" + messageType + "\"}";
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
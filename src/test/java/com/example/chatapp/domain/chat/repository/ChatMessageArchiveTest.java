@@ -0,0 +1,136 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 아카이브 세그먼트에 쓴 메시지를 시간 범위/커서 조회로 그대로 읽어 오는지,
+ * 쓰다 만 인덱스 엔트리가 남아도 이어 쓴 블록이 어긋나지 않는지,
+ * 다른 노드가 추가한 블록을 캐시된 인덱스로도 바로 읽는지 확인한다.
+ */
+class ChatMessageArchiveTest {
+
+    private static final String ROOM_ID = "room-1";
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackMessagesAcrossBlocksAndSegments() throws Exception {
+        // 세그먼트 하나에 블록 하나씩 들어가도록 최대 크기를 작게 잡는다
+        ChatMessageArchive archive = newArchive(1);
+        List<ChatMessage> messages = messages(1, 10);
+        archive.append(ROOM_ID, messages, 3);
+
+        assertThat(files(".seg")).hasSize(4);
+        assertThat(seqs(archive.findBetween(ROOM_ID, BASE_TIME, BASE_TIME.plusHours(1))))
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 10).boxed().toList());
+        assertThat(seqs(archive.findBetween(ROOM_ID, at(4), at(6)))).containsExactly(4L, 5L, 6L);
+
+        List<ChatMessage> newest = archive.findPageBefore(ROOM_ID, null, null, 4);
+        assertThat(seqs(newest)).containsExactly(10L, 9L, 8L, 7L);
+        ChatMessage cursor = newest.get(newest.size() - 1);
+        assertThat(seqs(archive.findPageBefore(ROOM_ID, cursor.getTimestamp(), cursor.getId(), 4)))
+                .containsExactly(6L, 5L, 4L, 3L);
+        assertThat(seqs(archive.findPageAfter(ROOM_ID, at(3), "id-3", 5))).containsExactly(4L, 5L, 6L, 7L, 8L);
+
+        assertThat(archive.lastArchived(ROOM_ID).getSeq()).isEqualTo(10L);
+        assertThat(archive.newestArchivedTimestamp(ROOM_ID)).isEqualTo(at(10));
+    }
+
+    @Test
+    void truncatesTornIndexEntryBeforeAppending() throws Exception {
+        ChatMessageArchive archive = newArchive(64 * 1024 * 1024);
+        archive.append(ROOM_ID, messages(1, 3), 3);
+
+        // 인덱스 엔트리를 쓰다 죽은 것처럼 32 바이트보다 짧은 조각을 남긴다
+        Path index = files(".idx").get(0);
+        Files.write(index, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        ChatMessageArchive restarted = newArchive(64 * 1024 * 1024);
+        assertThat(seqs(restarted.findBetween(ROOM_ID, BASE_TIME, BASE_TIME.plusHours(1)))).containsExactly(1L, 2L, 3L);
+
+        restarted.append(ROOM_ID, messages(4, 3), 3);
+
+        assertThat(Files.size(index)).isEqualTo(2 * 32);
+        assertThat(seqs(newArchive(64 * 1024 * 1024).findBetween(ROOM_ID, BASE_TIME, BASE_TIME.plusHours(1))))
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 6).boxed().toList());
+    }
+
+    @Test
+    void readerSeesBlocksAppendedByAnotherNode() throws Exception {
+        ChatMessageArchive reader = newArchive(1);
+        ChatMessageArchive writer = newArchive(1);
+        assertThat(reader.newestArchivedTimestamp(ROOM_ID)).isNull();
+
+        writer.append(ROOM_ID, messages(1, 3), 3);
+        assertThat(reader.newestArchivedTimestamp(ROOM_ID)).isEqualTo(at(3));
+
+        // 같은 세그먼트에 추가(크기 변화)와 새 세그먼트 생성을 모두 알아챈다
+        ChatMessageArchive sameSegmentWriter = newArchive(64 * 1024 * 1024);
+        sameSegmentWriter.append(ROOM_ID, messages(4, 2), 2);
+        assertThat(reader.newestArchivedTimestamp(ROOM_ID)).isEqualTo(at(5));
+
+        writer.append(ROOM_ID, messages(6, 2), 2);
+        assertThat(reader.newestArchivedTimestamp(ROOM_ID)).isEqualTo(at(7));
+        assertThat(seqs(reader.findPageBefore(ROOM_ID, null, null, 100))).hasSize(7);
+    }
+
+    private ChatMessageArchive newArchive(long segmentMaxBytes) {
+        ChatMessageArchive archive = new ChatMessageArchive(OBJECT_MAPPER);
+        ReflectionTestUtils.setField(archive, "enabled", true);
+        ReflectionTestUtils.setField(archive, "directory", directory.toString());
+        ReflectionTestUtils.setField(archive, "segmentMaxBytes", segmentMaxBytes);
+        archive.init();
+        return archive;
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(ROOM_ID))) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static List<ChatMessage> messages(long firstSeq, int count) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (long seq = firstSeq; seq < firstSeq + count; seq++) {
+            messages.add(ChatMessage.builder()
+                    .id("id-" + seq)
+                    .roomId(ROOM_ID)
+                    .seq(seq)
+                    .message("message " + seq)
+                    .senderId("user")
+                    .senderName("user")
+                    .messageType(MessageType.CHAT)
+                    .timestamp(at(seq))
+                    .build());
+        }
+        return messages;
+    }
+
+    private static LocalDateTime at(long seq) {
+        return BASE_TIME.plusSeconds(seq);
+    }
+
+    private static List<Long> seqs(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getSeq).toList();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.entity.ChatMessageBucket;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bucket 저장 방식에서 구간 문서가 max-messages 를 넘지 않고 part 로 나뉘는지,
+ * 같은 메시지를 다시 저장해도 중복되지 않는지, seq 이후 조회가 구간 수와 관계없이 빠짐없이 이어지는지,
+ * 보관 기간 정리 뒤 count 가 남은 메시지 수와 같은지 확인한다.
+ */
+@Testcontainers
+class ChatMessageBucketStoreTest {
+
+    private static final String DATABASE = "chat_bucket_test";
+    private static final int MAX_MESSAGES = 5;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl(DATABASE));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessageBucket.class);
+        IndexResolver.create(mappingContext).resolveIndexFor(ChatMessageBucket.class).forEach(indexOps::ensureIndex);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void rollsOverToNextPartWhenBucketIsFull() {
+        String roomId = "rollover";
+        ChatMessageBucketStore store = newStore();
+        List<ChatMessage> messages = messages(roomId, 1, 12, 0);
+        assertThat(store.append(messages.subList(0, 3))).isEmpty();
+        assertThat(store.append(messages.subList(3, 12))).isEmpty();
+
+        List<ChatMessageBucket> parts = mongoTemplate.find(
+                Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).hasSize(3);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getMessages()).hasSizeLessThanOrEqualTo(MAX_MESSAGES));
+        assertThat(parts).extracting(ChatMessageBucket::getPart).containsExactlyInAnyOrder(0, 1, 2);
+
+        // 재시작한 노드도 자리가 남은 part 0 이 아니라 가장 큰 part 부터 이어 쓴다
+        ChatMessageBucketStore restarted = newStore();
+        assertThat(restarted.append(messages(roomId, 13, 1, 0))).isEmpty();
+        parts = mongoTemplate.find(Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getMessages()).hasSizeLessThanOrEqualTo(MAX_MESSAGES));
+        assertThat(parts).filteredOn(part -> part.getPart() == 0).singleElement()
+                .satisfies(part -> assertThat(part.getMessages()).hasSize(3));
+
+        assertThat(restarted.findPageBefore(roomId, null, null, 100)).hasSize(13);
+    }
+
+    @Test
+    void splitsLargeGroupAcrossConsecutiveParts() {
+        String roomId = "large-group";
+        ChatMessageBucketStore store = newStore();
+        assertThat(store.append(messages(roomId, 1, 2, 0))).isEmpty();
+
+        // 한 구간에 part 10 개가 넘는 메시지가 한 번에 와도 모두 저장된다
+        assertThat(store.append(messages(roomId, 3, 60, 0))).isEmpty();
+
+        List<ChatMessageBucket> parts = mongoTemplate.find(
+                Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getMessages()).hasSizeLessThanOrEqualTo(MAX_MESSAGES));
+        assertThat(parts).allSatisfy(part -> assertThat(part.getCount()).isEqualTo(part.getMessages().size()));
+        assertThat(parts).allSatisfy(part -> {
+            List<Long> seqs = part.getMessages().stream().map(ChatMessage::getSeq).toList();
+            assertThat(part.getMinSeq()).isEqualTo(seqs.stream().min(Long::compare).orElseThrow());
+            assertThat(part.getMaxSeq()).isEqualTo(seqs.stream().max(Long::compare).orElseThrow());
+        });
+        assertThat(store.findPageBefore(roomId, null, null, 100)).extracting(ChatMessage::getSeq)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, 62).boxed().toList());
+    }
+
+    @Test
+    void retriedAppendDoesNotDuplicateMessages() {
+        String roomId = "retry";
+        ChatMessageBucketStore store = newStore();
+        List<ChatMessage> messages = messages(roomId, 1, 8, 0);
+        assertThat(store.append(messages.subList(0, 5))).isEmpty();
+
+        // 재시도: 이미 저장된 5건(가득 찬 part 0)과 새 3건을 함께 다시 넘긴다
+        assertThat(store.append(messages)).isEmpty();
+        assertThat(store.append(messages.subList(5, 8))).isEmpty();
+
+        List<ChatMessage> stored = store.findPageBefore(roomId, null, null, 100);
+        assertThat(stored).extracting(ChatMessage::getSeq)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, 8).boxed().toList());
+        List<ChatMessageBucket> parts = mongoTemplate.find(
+                Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getCount()).isEqualTo(part.getMessages().size()));
+    }
+
+    @Test
+    void findsEverySeqAfterCursorAcrossManyBuckets() {
+        String roomId = "many-buckets";
+        ChatMessageBucketStore store = newStore();
+        // 한 시간에 한 건씩 100 개 구간
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            messages.addAll(messages(roomId, i + 1, 1, i));
+        }
+        assertThat(store.append(messages)).isEmpty();
+
+        List<ChatMessage> afterSeq = store.findAfterSeq(roomId, 10, 20);
+        assertThat(afterSeq).extracting(ChatMessage::getSeq)
+                .containsExactlyElementsOf(LongStream.rangeClosed(11, 30).boxed().toList());
+        assertThat(afterSeq).allSatisfy(message -> assertThat(message.getRoomId()).isEqualTo(roomId));
+        assertThat(store.findAfterSeq(roomId, 95, 20)).extracting(ChatMessage::getSeq)
+                .containsExactly(96L, 97L, 98L, 99L, 100L);
+    }
+
+    @Test
+    void findsSeqsInOrderWhenPartRangesOverlap() {
+        String roomId = "overlapping";
+        ChatMessageBucketStore store = newStore();
+        // 다른 노드의 시계가 늦어 앞 구간에 더 큰 seq 가 들어간 경우
+        List<ChatMessage> messages = new ArrayList<>(messages(roomId, 1, 3, 0));
+        messages.addAll(messages(roomId, 10, 2, 0));
+        messages.addAll(messages(roomId, 4, 6, 1));
+        assertThat(store.append(messages)).isEmpty();
+
+        assertThat(store.findAfterSeq(roomId, 2, 4)).extracting(ChatMessage::getSeq)
+                .containsExactly(3L, 4L, 5L, 6L);
+        assertThat(store.findAfterSeq(roomId, 8, 10)).extracting(ChatMessage::getSeq)
+                .containsExactly(9L, 10L, 11L);
+    }
+
+    @Test
+    void deleteBeforeKeepsCountInSyncWithRemainingMessages() {
+        String roomId = "retention";
+        ChatMessageBucketStore store = newStore();
+        assertThat(store.append(messages(roomId, 1, 8, 0))).isEmpty();
+        assertThat(store.append(messages(roomId, 9, 2, 1))).isEmpty();
+
+        // 0 시 구간의 seq 1~3 만 지운다
+        store.deleteBefore(roomId, BASE_TIME.plusSeconds(4));
+
+        List<ChatMessageBucket> parts = mongoTemplate.find(
+                Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getCount()).isEqualTo(part.getMessages().size()));
+        assertThat(parts).extracting(ChatMessageBucket::getCount).asList()
+                .containsExactlyInAnyOrder(2, 3, 2);
+        assertThat(store.findPageBefore(roomId, null, null, 100)).extracting(ChatMessage::getSeq)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(4, 10).boxed().toList());
+
+        // 자리가 생긴 part 에 다시 채워도 max-messages 를 넘지 않는다
+        assertThat(store.append(messages(roomId, 11, 3, 0))).isEmpty();
+        parts = mongoTemplate.find(Query.query(Criteria.where("roomId").is(roomId)), ChatMessageBucket.class);
+        assertThat(parts).allSatisfy(part -> assertThat(part.getMessages()).hasSizeLessThanOrEqualTo(MAX_MESSAGES));
+    }
+
+    private static ChatMessageBucketStore newStore() {
+        ChatMessageBucketStore store = new ChatMessageBucketStore(mongoTemplate);
+        ReflectionTestUtils.setField(store, "layout", ChatMessageBucketStore.LAYOUT_BUCKET);
+        ReflectionTestUtils.setField(store, "bucketWidthMinutes", 60L);
+        ReflectionTestUtils.setField(store, "maxCachedRooms", 100L);
+        ReflectionTestUtils.setField(store, "maxMessagesPerBucket", MAX_MESSAGES);
+        store.init();
+        return store;
+    }
+
+    private static List<ChatMessage> messages(String roomId, long firstSeq, int count, int hour) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long seq = firstSeq + i;
+            messages.add(ChatMessage.builder()
+                    .roomId(roomId)
+                    .seq(seq)
+                    .message("message " + seq)
+                    .senderId("user")
+                    .senderName("user")
+                    .messageType(MessageType.CHAT)
+                    .timestamp(BASE_TIME.plusHours(hour).plusSeconds(seq))
+                    .build());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 채팅 기록 keyset 페이지네이션을 실제 MongoDB 에서 검증한다.
+ * 방 크기가 커져도 한 페이지가 읽는 인덱스 키와 문서 수가 페이지 크기에 묶여 있는지 explain 으로 확인한다.
+ */
+@Testcontainers
+class ChatMessageRepositoryPagingTest {
+
+    private static final String DATABASE = "chat_paging_test";
+    private static final int PAGE_SIZE = 50;
+    // 같은 timestamp 를 가진 메시지가 생기도록 초당 3개씩 만든다
+    private static final int MESSAGES_PER_SECOND = 3;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ChatMessageRepositoryImpl repository;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl(DATABASE));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+
+        // 엔티티에 선언된 인덱스를 그대로 만든다
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessage.class);
+        IndexResolver.create(mappingContext).resolveIndexFor(ChatMessage.class).forEach(indexOps::ensureIndex);
+
+        repository = new ChatMessageRepositoryImpl(mongoTemplate,
+                new ChatMessageBucketStore(mongoTemplate), new ChatMessageArchive(new ObjectMapper()));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void pagesBackwardAndForwardWithoutGapsOrDuplicates() {
+        String roomId = "paging-room";
+        insertMessages(roomId, 1_000);
+
+        List<ChatMessage> newestFirst = new ArrayList<>();
+        List<ChatMessage> page = repository.findPageBefore(roomId, null, null, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            newestFirst.addAll(page);
+            ChatMessage last = page.get(page.size() - 1);
+            page = repository.findPageBefore(roomId, last.getTimestamp(), last.getId(), PAGE_SIZE);
+        }
+
+        assertThat(newestFirst).hasSize(1_000);
+        assertThat(ids(newestFirst)).doesNotHaveDuplicates();
+        assertThat(newestFirst).isSortedAccordingTo((a, b) -> {
+            int cmp = b.getTimestamp().compareTo(a.getTimestamp());
+            return cmp != 0 ? cmp : b.getId().compareTo(a.getId());
+        });
+
+        ChatMessage oldest = newestFirst.get(newestFirst.size() - 1);
+        List<ChatMessage> oldestFirst = new ArrayList<>(List.of(oldest));
+        page = repository.findPageAfter(roomId, oldest.getTimestamp(), oldest.getId(), PAGE_SIZE);
+        while (!page.isEmpty()) {
+            oldestFirst.addAll(page);
+            ChatMessage last = page.get(page.size() - 1);
+            page = repository.findPageAfter(roomId, last.getTimestamp(), last.getId(), PAGE_SIZE);
+        }
+
+        assertThat(ids(oldestFirst)).containsExactlyElementsOf(ids(newestFirst.reversed()));
+    }
+
+    @Test
+    void pageCostDoesNotGrowWithRoomSize() {
+        List<Long> keysExamined = new ArrayList<>();
+        for (int size : new int[]{1_000, 10_000, 50_000}) {
+            String roomId = "room-" + size;
+            insertMessages(roomId, size);
+
+            // 방 한가운데에서 시작하는 깊은 페이지
+            ChatMessage middle = mongoTemplate.findOne(new Query(Criteria.where("roomId").is(roomId))
+                    .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                    .skip(size / 2), ChatMessage.class);
+            assertThat(middle).isNotNull();
+
+            Document explain = explain(() -> assertThat(
+                    repository.findPageBefore(roomId, middle.getTimestamp(), middle.getId(), PAGE_SIZE))
+                    .hasSize(PAGE_SIZE));
+
+            Document stats = explain.get("executionStats", Document.class);
+            long keys = stats.get("totalKeysExamined", Number.class).longValue();
+            long docs = stats.get("totalDocsExamined", Number.class).longValue();
+            String plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+            assertThat(plan).contains("IXSCAN").doesNotContain("COLLSCAN").doesNotContain("SORT\"");
+            assertThat(stats.get("nReturned", Number.class).longValue()).isEqualTo(PAGE_SIZE);
+            assertThat(docs).isLessThanOrEqualTo(PAGE_SIZE * 2L);
+            assertThat(keys).isLessThanOrEqualTo(PAGE_SIZE * 2L + 2);
+            keysExamined.add(keys);
+        }
+
+        // 50배 큰 방에서도 읽는 키 수가 같은 범위에 머문다
+        assertThat(keysExamined.get(2)).isLessThanOrEqualTo(keysExamined.get(0) * 2);
+    }
+
+    private static void insertMessages(String roomId, int count) {
+        List<ChatMessage> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(ChatMessage.builder()
+                    .roomId(roomId)
+                    .seq((long) i + 1)
+                    .message("message " + i)
+                    .senderId("user-" + (i % 7))
+                    .senderName("user-" + (i % 7))
+                    .messageType(MessageType.CHAT)
+                    .timestamp(BASE_TIME.plusSeconds(i / MESSAGES_PER_SECOND))
+                    .build());
+            if (batch.size() == 5_000) {
+                mongoTemplate.insert(batch, ChatMessage.class);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, ChatMessage.class);
+        }
+    }
+
+    /**
+     * profiler 로 action 이 chat_messages 에 보낸 마지막 find 명령을 잡아, 같은 명령을 executionStats 로 explain 한다.
+     */
+    private static Document explain(Runnable action) {
+        mongoTemplate.getDb().runCommand(new Document("profile", 0));
+        mongoTemplate.getDb().getCollection("system.profile").drop();
+        mongoTemplate.getDb().runCommand(new Document("profile", 2));
+        try {
+            action.run();
+        } finally {
+            mongoTemplate.getDb().runCommand(new Document("profile", 0));
+        }
+        Document profile = mongoTemplate.getDb().getCollection("system.profile")
+                .find(new Document("ns", DATABASE + ".chat_messages").append("op", "query"))
+                .sort(new Document("ts", -1))
+                .first();
+        assertThat(profile).as("profiled find on chat_messages").isNotNull();
+
+        Document command = profile.get("command", Document.class);
+        Document find = new Document("find", command.get("find"));
+        for (String field : List.of("filter", "sort", "projection", "limit", "hint")) {
+            if (command.containsKey(field)) {
+                find.append(field, command.get(field));
+            }
+        }
+        return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "executionStats"));
+    }
+
+    private static List<String> ids(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getId).toList();
+    }
+}
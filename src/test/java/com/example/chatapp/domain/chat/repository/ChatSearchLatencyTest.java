@@ -0,0 +1,269 @@
+package com.example.chatapp.domain.chat.repository;
+
+import com.example.chatapp.domain.chat.dto.ChatSearchHit;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.entity.ChatMessageBucket;
+import com.example.chatapp.domain.chat.entity.ChatMessageSearchEntry;
+import com.example.chatapp.domain.chat.service.MessageSanitizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 생성한 말뭉치로 방 내 검색의 지연 목표와 두 저장 방식의 결과 일치를 확인한다.
+ *
+ * 목표: 메시지 5만 건 방에서 검색 한 페이지 p50 50ms, p95 200ms 이내.
+ * 말뭉치 적재와 반복 측정에 시간이 걸리므로 performance 태그로 분리해 ./gradlew performanceTest 로만 실행한다.
+ * 목표를 넘으면 실패 메시지에 p50/p95/p99 측정값이 함께 나온다.
+ */
+@Tag("performance")
+@Testcontainers
+class ChatSearchLatencyTest {
+
+    private static final String DATABASE = "chat_search_test";
+    private static final int ROOM_SIZE = 50_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS_PER_QUERY = 30;
+    private static final long P50_TARGET_MS = 50;
+    private static final long P95_TARGET_MS = 200;
+    private static final Duration MAX_TIME = Duration.ofSeconds(2);
+
+    private static final String DOCUMENT_ROOM = "search-document";
+    private static final String BUCKET_ROOM = "search-bucket";
+
+    // 흔한 단어, 드문 단어, 두 단어, 구문, 활용형(형태소 처리), 이스케이프되는 문자
+    private static final List<String> QUERIES = List.of(
+            "meeting", "quarterly", "deploy rollback", "\"release notes\"", "running", "tom&jerry", "배포");
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static ChatMessageRepositoryImpl documentRepository;
+    private static ChatMessageRepositoryImpl bucketRepository;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl(DATABASE));
+        MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        for (Class<?> entity : List.of(ChatMessage.class, ChatMessageBucket.class, ChatMessageSearchEntry.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            IndexResolver.create(mappingContext).resolveIndexFor(entity).forEach(indexOps::ensureIndex);
+        }
+
+        ChatMessageArchive archive = new ChatMessageArchive(new ObjectMapper());
+        ChatMessageBucketStore documentStore = new ChatMessageBucketStore(mongoTemplate);
+        documentStore.init();
+        documentRepository = new ChatMessageRepositoryImpl(mongoTemplate, documentStore, archive);
+
+        ChatMessageBucketStore bucketStore = new ChatMessageBucketStore(mongoTemplate);
+        ReflectionTestUtils.setField(bucketStore, "layout", ChatMessageBucketStore.LAYOUT_BUCKET);
+        ReflectionTestUtils.setField(bucketStore, "bucketWidthMinutes", 60L);
+        ReflectionTestUtils.setField(bucketStore, "maxCachedRooms", 100L);
+        ReflectionTestUtils.setField(bucketStore, "maxMessagesPerBucket", 2000);
+        bucketStore.init();
+        bucketRepository = new ChatMessageRepositoryImpl(mongoTemplate, bucketStore, archive);
+
+        List<ChatMessage> documentBatch = new ArrayList<>();
+        List<ChatMessage> bucketBatch = new ArrayList<>();
+        Corpus corpus = new Corpus(42);
+        for (int i = 0; i < ROOM_SIZE; i++) {
+            ChatMessage message = corpus.next(i);
+            documentBatch.add(message.toBuilder().roomId(DOCUMENT_ROOM).build());
+            bucketBatch.add(message.toBuilder().roomId(BUCKET_ROOM).build());
+            if (documentBatch.size() == 5_000) {
+                mongoTemplate.insert(documentBatch, ChatMessage.class);
+                assertThat(bucketStore.append(bucketBatch)).isEmpty();
+                documentBatch = new ArrayList<>();
+                bucketBatch = new ArrayList<>();
+            }
+        }
+        if (!documentBatch.isEmpty()) {
+            mongoTemplate.insert(documentBatch, ChatMessage.class);
+            assertThat(bucketStore.append(bucketBatch)).isEmpty();
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void meetsLatencyTargets() {
+        for (ChatMessageRepositoryImpl repository : List.of(documentRepository, bucketRepository)) {
+            String roomId = repository == documentRepository ? DOCUMENT_ROOM : BUCKET_ROOM;
+            // 첫 실행의 인덱스 적재 비용은 측정에서 뺀다
+            QUERIES.forEach(query -> repository.searchText(roomId, query, 0, PAGE_SIZE + 1, MAX_TIME));
+
+            long[] samples = new long[QUERIES.size() * RUNS_PER_QUERY];
+            int n = 0;
+            for (int run = 0; run < RUNS_PER_QUERY; run++) {
+                for (String query : QUERIES) {
+                    long start = System.nanoTime();
+                    repository.searchText(roomId, query, (run % 5) * PAGE_SIZE, PAGE_SIZE + 1, MAX_TIME);
+                    samples[n++] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(samples);
+            long p50 = percentileMillis(samples, 0.50);
+            long p95 = percentileMillis(samples, 0.95);
+            long p99 = percentileMillis(samples, 0.99);
+            String measured = String.format("%s (%,d messages): p50=%dms p95=%dms p99=%dms",
+                    roomId, ROOM_SIZE, p50, p95, p99);
+
+            assertThat(p50).as(measured).isLessThanOrEqualTo(P50_TARGET_MS);
+            assertThat(p95).as(measured).isLessThanOrEqualTo(P95_TARGET_MS);
+        }
+    }
+
+    @Test
+    void bucketLayoutRanksMessagesLikeDocumentLayout() {
+        for (String query : QUERIES) {
+            List<ChatSearchHit> expected = documentRepository.searchText(DOCUMENT_ROOM, query, 0, ROOM_SIZE, MAX_TIME);
+            List<ChatSearchHit> actual = bucketRepository.searchText(BUCKET_ROOM, query, 0, ROOM_SIZE, MAX_TIME);
+
+            assertThat(actual).as(query).isNotEmpty();
+            assertThat(new HashSet<>(ids(actual))).as(query).isEqualTo(new HashSet<>(ids(expected)));
+            assertThat(scores(actual)).as(query).isEqualTo(scores(expected));
+        }
+    }
+
+    @Test
+    void bucketLayoutPagesWithoutGapsOrDuplicates() {
+        String query = "quarterly";
+        List<ChatSearchHit> all = bucketRepository.searchText(BUCKET_ROOM, query, 0, ROOM_SIZE, MAX_TIME);
+
+        List<ChatSearchHit> paged = new ArrayList<>();
+        List<ChatSearchHit> page;
+        int skip = 0;
+        do {
+            page = bucketRepository.searchText(BUCKET_ROOM, query, skip, PAGE_SIZE, MAX_TIME);
+            paged.addAll(page);
+            skip += PAGE_SIZE;
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(ids(paged)).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(ids(paged))).isEqualTo(new HashSet<>(ids(all)));
+    }
+
+    @Test
+    void matchesInflectedFormsAndEscapedText() {
+        // "running" 은 형태소 처리로 runs / run 이 든 메시지와도 일치해야 한다
+        List<ChatSearchHit> hits = bucketRepository.searchText(BUCKET_ROOM, "running", 0, 200, MAX_TIME);
+        assertThat(hits).isNotEmpty();
+        assertThat(hits).anyMatch(hit -> !hit.getMessage().contains("running"));
+        assertThat(hits).allSatisfy(hit -> assertThat(hit.getScore()).isPositive());
+
+        // 빈 결과면 allMatch 가 그대로 통과하므로 먼저 결과가 있는지 본다
+        List<ChatSearchHit> escaped = bucketRepository.searchText(BUCKET_ROOM, "tom&jerry", 0, 10, MAX_TIME);
+        assertThat(escaped).isNotEmpty();
+        assertThat(escaped).allMatch(hit -> hit.getMessage().contains("tom&amp;jerry"));
+    }
+
+    private static long percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return Duration.ofNanos(sortedNanos[Math.max(0, index)]).toMillis();
+    }
+
+    private static List<String> ids(List<ChatSearchHit> hits) {
+        return hits.stream().map(ChatSearchHit::getId).toList();
+    }
+
+    // 같은 점수끼리는 순서가 정해지지 않으므로 점수 열만 비교한다
+    private static List<Float> scores(List<ChatSearchHit> hits) {
+        return hits.stream().map(ChatSearchHit::getScore).toList();
+    }
+
+    /**
+     * 재현 가능한 채팅 말뭉치. 단어 빈도는 Zipf 분포를 따르고, 활용형과 이스케이프 대상 문자가 섞인다.
+     */
+    private static final class Corpus {
+
+        private static final String[] COMMON = {
+                "the", "meeting", "today", "please", "check", "deploy", "build", "review", "ok", "thanks",
+                "lunch", "later", "ticket", "merge", "branch", "test", "server", "error", "fix", "done",
+                "회의", "배포", "확인", "점심", "내일", "오늘", "리뷰", "테스트"};
+        private static final String[] RARE = {
+                "quarterly", "rollback", "release", "notes", "postmortem", "latency", "benchmark", "tom&jerry",
+                "<script>", "\"quoted\"", "it's"};
+        private static final String[] INFLECTED = {"run", "runs", "running", "ran", "runner"};
+        private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        private final Random random;
+        private final double[] cumulative;
+
+        private Corpus(long seed) {
+            random = new Random(seed);
+            cumulative = new double[COMMON.length];
+            double sum = 0;
+            for (int i = 0; i < COMMON.length; i++) {
+                sum += 1.0 / (i + 1);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        ChatMessage next(int index) {
+            int words = 3 + random.nextInt(20);
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                double roll = random.nextDouble();
+                if (roll < 0.02) {
+                    text.append(RARE[random.nextInt(RARE.length)]);
+                } else if (roll < 0.04) {
+                    text.append(INFLECTED[random.nextInt(INFLECTED.length)]);
+                } else {
+                    text.append(common());
+                }
+            }
+            int sender = random.nextInt(50);
+            return ChatMessage.builder()
+                    .id(new ObjectId().toHexString())
+                    .seq((long) index + 1)
+                    // 실제 저장 경로처럼 이스케이프된 형태로 저장한다
+                    .message(MessageSanitizer.escapeHtml(text.toString()))
+                    .senderId("user-" + sender)
+                    .senderName("user-" + sender)
+                    .messageType(MessageType.CHAT)
+                    .timestamp(BASE_TIME.plusSeconds(index))
+                    .build();
+        }
+
+        private String common() {
+            double roll = random.nextDouble();
+            int i = Arrays.binarySearch(cumulative, roll);
+            return COMMON[Math.min(i >= 0 ? i : -i - 1, COMMON.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.repository.ChatMessageArchive;
+import com.example.chatapp.domain.chat.repository.ChatMessageBucketStore;
+import com.example.chatapp.domain.chat.repository.ChatMessageRepositoryImpl;
+import com.example.chatapp.global.cluster.RedisLeaderLease;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실제 MongoDB 와 임시 아카이브 디렉터리로 hot tier 에서 아카이브로 옮기는 과정을 확인한다.
+ * 옮긴 뒤에도 기록 조회가 두 tier 를 이어 읽는지, 아카이브까지 쓰고 삭제 전에 멈춘 실행을 이어받아도 중복되지 않는지,
+ * 아카이브 기준점보다 오래됐지만 아카이브에 없는 메시지는 지우지 않는지 본다.
+ */
+@Testcontainers
+@SuppressWarnings("unchecked")
+class ChatMessageArchiverTest {
+
+    private static final String DATABASE = "chat_archiver_test";
+    private static final String ROOM_ID = "room-1";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @TempDir
+    Path directory;
+
+    private final LocalDateTime oldTime = LocalDateTime.now().minusDays(60).truncatedTo(ChronoUnit.SECONDS);
+
+    private ChatMessageArchive archive;
+    private ChatMessageArchiver archiver;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl(DATABASE));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessage.class);
+        IndexResolver.create(mappingContext).resolveIndexFor(ChatMessage.class).forEach(indexOps::ensureIndex);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @BeforeEach
+    void setUpArchive() {
+        mongoTemplate.remove(new Query(), ChatMessage.class);
+
+        archive = new ChatMessageArchive(OBJECT_MAPPER);
+        ReflectionTestUtils.setField(archive, "enabled", true);
+        ReflectionTestUtils.setField(archive, "directory", directory.toString());
+        ReflectionTestUtils.setField(archive, "segmentMaxBytes", 64L * 1024 * 1024);
+        archive.init();
+
+        RedisLeaderLease leaderLease = mock(RedisLeaderLease.class);
+        when(leaderLease.tryAcquire(any(), anyLong())).thenReturn(true);
+
+        archiver = new ChatMessageArchiver(mongoTemplate, archive, new ChatMessageBucketStore(mongoTemplate),
+                mock(RedisTemplate.class), mock(ClusterMessageRelay.class));
+        ReflectionTestUtils.setField(archiver, "leaderLease", leaderLease);
+        ReflectionTestUtils.setField(archiver, "hotRetentionDays", 30L);
+        ReflectionTestUtils.setField(archiver, "batchSize", 4);
+        ReflectionTestUtils.setField(archiver, "blockSize", 3);
+        ReflectionTestUtils.setField(archiver, "maxMessagesPerRun", 1_000L);
+        ReflectionTestUtils.setField(archiver, "leaseMs", 60_000L);
+    }
+
+    @Test
+    void movesOldMessagesToArchiveAndKeepsHistoryContiguous() {
+        List<ChatMessage> old = insert(1, 10, oldTime);
+        insert(11, 2, LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS));
+
+        archiver.archiveOldMessages();
+
+        assertThat(storedSeqs()).containsExactly(11L, 12L);
+        assertThat(archivedSeqs()).containsExactlyElementsOf(range(1, 10));
+        assertThat(archive.lastArchived(ROOM_ID).getId()).isEqualTo(old.get(old.size() - 1).getId());
+
+        // 기록 조회는 hot tier 다음에 아카이브를 이어 읽는다
+        ChatMessageRepositoryImpl repository = new ChatMessageRepositoryImpl(mongoTemplate,
+                new ChatMessageBucketStore(mongoTemplate), archive);
+        List<Long> newestFirst = new ArrayList<>();
+        List<ChatMessage> page = repository.findPageBefore(ROOM_ID, null, null, 5);
+        while (!page.isEmpty()) {
+            page.forEach(message -> newestFirst.add(message.getSeq()));
+            ChatMessage last = page.get(page.size() - 1);
+            page = repository.findPageBefore(ROOM_ID, last.getTimestamp(), last.getId(), 5);
+        }
+        assertThat(newestFirst).containsExactlyElementsOf(range(1, 12).reversed());
+    }
+
+    @Test
+    void resumesFromArchiveWatermarkWithoutDuplicating() throws Exception {
+        List<ChatMessage> old = insert(1, 10, oldTime);
+        // 이전 실행이 앞 6건을 아카이브에 쓰고 Mongo 에서 지우기 전에 멈췄다
+        archive.append(ROOM_ID, old.subList(0, 6), 3);
+
+        archiver.archiveOldMessages();
+
+        assertThat(storedSeqs()).isEmpty();
+        assertThat(archivedSeqs()).containsExactlyElementsOf(range(1, 10));
+    }
+
+    @Test
+    void keepsOlderMessagesThatAreMissingFromArchive() throws Exception {
+        List<ChatMessage> old = insert(1, 10, oldTime);
+        // 기준점(seq 10)보다 앞이지만 아카이브에 없는 1~4 는 지우면 사라진다
+        archive.append(ROOM_ID, old.subList(4, 10), 3);
+
+        archiver.archiveOldMessages();
+
+        assertThat(storedSeqs()).containsExactlyElementsOf(range(1, 4));
+        assertThat(archivedSeqs()).containsExactlyElementsOf(range(5, 10));
+
+        // 다음 실행도 같은 메시지를 남기고 끝난다
+        archiver.archiveOldMessages();
+        assertThat(storedSeqs()).containsExactlyElementsOf(range(1, 4));
+        assertThat(archivedSeqs()).containsExactlyElementsOf(range(5, 10));
+    }
+
+    private List<ChatMessage> insert(long firstSeq, int count, LocalDateTime from) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (long seq = firstSeq; seq < firstSeq + count; seq++) {
+            messages.add(ChatMessage.builder()
+                    .roomId(ROOM_ID)
+                    .seq(seq)
+                    .message("message " + seq)
+                    .senderId("user")
+                    .senderName("user")
+                    .messageType(MessageType.CHAT)
+                    .timestamp(from.plusSeconds(seq))
+                    .build());
+        }
+        mongoTemplate.insert(messages, ChatMessage.class);
+        return messages;
+    }
+
+    private static List<Long> storedSeqs() {
+        return mongoTemplate.find(new Query().with(Sort.by(Sort.Direction.ASC, "seq")), ChatMessage.class).stream()
+                .map(ChatMessage::getSeq)
+                .toList();
+    }
+
+    private List<Long> archivedSeqs() {
+        return archive.findBetween(ROOM_ID, oldTime, LocalDateTime.now()).stream()
+                .map(ChatMessage::getSeq)
+                .toList();
+    }
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+}
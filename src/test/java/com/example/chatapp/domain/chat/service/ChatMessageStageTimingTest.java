@@ -0,0 +1,173 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.dto.UnifiedMessageRequest;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.repository.ChatMessageBucketStore;
+import com.example.chatapp.domain.chat.repository.ChatMessageRepository;
+import com.example.chatapp.domain.chatroom.service.ParticipantCountService;
+import com.example.chatapp.domain.chatroom.service.RoomListUpdatePublisher;
+import com.example.chatapp.domain.user.repository.UserRepository;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import com.example.chatapp.global.metrics.ChatMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 메시지 처리 경로가 각 단계 시간을 SimpleMeterRegistry 의 해당 타이머에 한 번씩 기록하는지 확인한다.
+ * 느린 단계를 흉내 내 BUILD 가 SANITIZE 시간을 빼고 기록하는지, PERSIST 가 실제 저장 한 번을 재는지도 본다.
+ */
+class ChatMessageStageTimingTest {
+
+    private static final String ROOM_ID = "room-1";
+    private static final long SANITIZE_MS = 40;
+    private static final long BROADCAST_MS = 20;
+    private static final long PERSIST_MS = 20;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatMetrics chatMetrics = new ChatMetrics(registry);
+    private final ClusterMessageRelay clusterMessageRelay = mock(ClusterMessageRelay.class);
+    private final MessageSanitizer messageSanitizer = mock(MessageSanitizer.class);
+    private final ChatMessageBucketStore bucketStore = mock(ChatMessageBucketStore.class);
+
+    private ChatService chatService;
+    private ChatMessageBatchWriter batchWriter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(chatMetrics, "histogramEnabled", false);
+        ReflectionTestUtils.setField(chatMetrics, "maxRoomTags", 100);
+        chatMetrics.init();
+
+        when(messageSanitizer.sanitize(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(SANITIZE_MS);
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> {
+            Thread.sleep(BROADCAST_MS);
+            return null;
+        }).when(clusterMessageRelay).sendToRoom(anyString(), any(), any());
+
+        chatService = new ChatService(
+                clusterMessageRelay,
+                mock(ChatMessageResponseEncoder.class),
+                mock(ChatMessageRepository.class),
+                mock(ChatMessageBatchWriter.class),
+                mock(MessageSequencer.class),
+                messageSanitizer,
+                mock(RecentMessageBuffer.class),
+                mock(RoomActivityRecorder.class),
+                mock(PresenceHeartbeatRecorder.class),
+                mock(SessionMessageSender.class),
+                mock(UserRepository.class),
+                mock(RedisTemplate.class),
+                mock(ParticipantCountService.class),
+                mock(RoomListUpdatePublisher.class),
+                chatMetrics);
+
+        // start() 를 부르지 않으면 큐가 없으므로 enqueue 가 호출 스레드에서 바로 저장한다
+        batchWriter = new ChatMessageBatchWriter(mock(MongoTemplate.class), bucketStore, chatMetrics);
+        when(bucketStore.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void recordsEachStageOnceAndKeepsSanitizeOutOfBuild() {
+        chatService.processMessage(request("hello"));
+
+        assertThat(stage("build").count()).isEqualTo(1);
+        assertThat(stage("sanitize").count()).isEqualTo(1);
+        assertThat(stage("broadcast").count()).isEqualTo(1);
+        assertThat(stage("activity").count()).isEqualTo(1);
+        // PERSIST 는 큐에 넣을 때가 아니라 flusher 의 저장 때 기록된다
+        assertThat(stage("persist").count()).isZero();
+
+        assertThat(stage("sanitize").totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(SANITIZE_MS);
+        assertThat(stage("build").totalTime(TimeUnit.MILLISECONDS)).isLessThan(SANITIZE_MS);
+        assertThat(stage("broadcast").totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(BROADCAST_MS);
+
+        Timer process = registry.get("chat.message.process").timer();
+        assertThat(process.count()).isEqualTo(1);
+        assertThat(process.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(SANITIZE_MS + BROADCAST_MS);
+        assertThat(registry.get("chat.room.messages").tag("room", ROOM_ID).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsBroadcastTimeAndErrorWhenRelayFails() {
+        doThrow(new IllegalStateException("redis down")).when(clusterMessageRelay).sendToRoom(anyString(), any(), any());
+
+        chatService.processMessage(request("hello"));
+
+        assertThat(stage("broadcast").count()).isEqualTo(1);
+        assertThat(registry.get("chat.errors").tag("stage", "broadcast").counter().count()).isEqualTo(1);
+        assertThat(stage("activity").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsPersistPerWriteAttempt() {
+        when(bucketStore.append(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(PERSIST_MS);
+            return List.of();
+        });
+
+        batchWriter.enqueue(message());
+
+        assertThat(stage("persist").count()).isEqualTo(1);
+        assertThat(stage("persist").totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(PERSIST_MS);
+        assertThat(registry.get("chat.errors").tag("stage", "persist").counter().count()).isZero();
+    }
+
+    @Test
+    void countsPersistErrorWhenWriteFails() {
+        when(bucketStore.append(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        batchWriter.enqueue(message());
+
+        assertThat(stage("persist").count()).isEqualTo(1);
+        assertThat(registry.get("chat.errors").tag("stage", "persist").counter().count()).isEqualTo(1);
+    }
+
+    private Timer stage(String stage) {
+        return registry.get("chat.message.stage").tag("stage", stage).timer();
+    }
+
+    private static UnifiedMessageRequest request(String text) {
+        UnifiedMessageRequest request = new UnifiedMessageRequest();
+        request.setRoomId(ROOM_ID);
+        request.setSenderId("alice");
+        request.setMessage(text);
+        request.setMessageType(MessageType.CHAT);
+        return request;
+    }
+
+    private static ChatMessage message() {
+        return ChatMessage.builder()
+                .roomId(ROOM_ID)
+                .seq(1L)
+                .message("hello")
+                .senderId("alice")
+                .senderName("alice")
+                .messageType(MessageType.CHAT)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.entity.ChatMessage;
+import com.example.chatapp.domain.chat.repository.ChatMessageRepository;
+import com.example.chatapp.domain.chatroom.service.ParticipantCountService;
+import com.example.chatapp.domain.chatroom.service.RoomListUpdatePublisher;
+import com.example.chatapp.domain.user.repository.UserRepository;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import com.example.chatapp.global.messaging.SessionMessageSender;
+import com.example.chatapp.global.metrics.ChatMetrics;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * last-seq 로 재구독할 때의 backfill 을 확인한다.
+ * 메모리 버퍼로 이어지면 버퍼만, 아니면 Mongo 로 빈틈을 채우고, 그래도 이어지지 않거나 너무 많으면 reset 을 보낸다.
+ */
+class ChatServiceTest {
+
+    private static final String ROOM_ID = "room-1";
+    private static final String SESSION_ID = "session-1";
+    private static final String SUBSCRIPTION_ID = "sub-0";
+    private static final String DESTINATION = "/sub/room/" + ROOM_ID;
+
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private final RecentMessageBuffer recentMessageBuffer = mock(RecentMessageBuffer.class);
+    private final SessionMessageSender sessionMessageSender = mock(SessionMessageSender.class);
+
+    @SuppressWarnings("unchecked")
+    private final ChatService chatService = new ChatService(
+            mock(ClusterMessageRelay.class),
+            mock(ChatMessageResponseEncoder.class),
+            chatMessageRepository,
+            mock(ChatMessageBatchWriter.class),
+            mock(MessageSequencer.class),
+            mock(MessageSanitizer.class),
+            recentMessageBuffer,
+            mock(RoomActivityRecorder.class),
+            mock(PresenceHeartbeatRecorder.class),
+            sessionMessageSender,
+            mock(UserRepository.class),
+            mock(RedisTemplate.class),
+            mock(ParticipantCountService.class),
+            mock(RoomListUpdatePublisher.class),
+            mock(ChatMetrics.class));
+
+    @Test
+    void sendsOnlyBufferedMessagesAfterLastSeqWhenBufferCoversGap() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(responses(5, 8));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 6L);
+
+        assertThat(sentSeqs(Map.of("backfill", "true"))).containsExactly(7L, 8L);
+        verifyNoInteractions(chatMessageRepository);
+    }
+
+    @Test
+    void sendsNothingWhenClientIsUpToDate() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(responses(5, 8));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 8L);
+
+        verify(sessionMessageSender, never()).send(anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void fillsGapBeforeBufferFromRepository() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(responses(9, 10));
+        // 최신 메시지는 아직 배치 저장 전이라 저장소에는 앞쪽만 있다
+        when(chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(eq(ROOM_ID), eq(6L), anyInt()))
+                .thenReturn(stored(7, 8));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 6L);
+
+        assertThat(sentSeqs(Map.of("backfill", "true"))).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void resetsWithBufferWhenMissedMessagesAreNotContiguous() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(responses(9, 10));
+        when(chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(eq(ROOM_ID), eq(6L), anyInt()))
+                .thenReturn(stored(7, 7));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 6L);
+
+        assertThat(sentSeqs(Map.of("backfill", "true", "reset", "true"))).containsExactly(9L, 10L);
+    }
+
+    @Test
+    void resetsWhenTooManyMessagesWereMissed() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(responses(500, 501));
+        when(chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(eq(ROOM_ID), eq(1L), anyInt()))
+                .thenReturn(stored(2, 400));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 1L);
+
+        assertThat(sentSeqs(Map.of("backfill", "true", "reset", "true"))).containsExactly(500L, 501L);
+    }
+
+    @Test
+    void resetsWithLatestStoredPageWhenBufferIsEmptyAndRepositoryFails() {
+        when(recentMessageBuffer.snapshot(ROOM_ID)).thenReturn(List.of());
+        when(chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(anyString(), anyLong(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"));
+        // 최신순으로 돌려주는 페이지를 시간순으로 보낸다
+        when(chatMessageRepository.findPageBefore(eq(ROOM_ID), any(), any(), anyInt()))
+                .thenReturn(List.of(stored(12, 12).get(0), stored(11, 11).get(0)));
+
+        chatService.sendRecentMessages(ROOM_ID, SESSION_ID, SUBSCRIPTION_ID, 3L);
+
+        assertThat(sentSeqs(Map.of("backfill", "true", "reset", "true"))).containsExactly(11L, 12L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> sentSeqs(Map<String, String> expectedHeaders) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(sessionMessageSender).send(eq(SESSION_ID), eq(SUBSCRIPTION_ID), eq(DESTINATION), payload.capture(),
+                eq(expectedHeaders));
+        return ((List<ChatMessageResponse>) payload.getValue()).stream().map(ChatMessageResponse::getSeq).toList();
+    }
+
+    private static List<ChatMessageResponse> responses(long fromSeq, long toSeq) {
+        return LongStream.rangeClosed(fromSeq, toSeq)
+                .mapToObj(seq -> ChatMessageResponse.builder()
+                        .roomId(ROOM_ID)
+                        .seq(seq)
+                        .message("message " + seq)
+                        .senderId("alice")
+                        .senderName("alice")
+                        .messageType(MessageType.CHAT)
+                        .timestamp(LocalDateTime.of(2024, 5, 1, 12, 0).plusSeconds(seq))
+                        .build())
+                .toList();
+    }
+
+    private static List<ChatMessage> stored(long fromSeq, long toSeq) {
+        return LongStream.rangeClosed(fromSeq, toSeq)
+                .mapToObj(seq -> ChatMessage.builder()
+                        .id("id-" + seq)
+                        .roomId(ROOM_ID)
+                        .seq(seq)
+                        .message("message " + seq)
+                        .senderId("alice")
+                        .senderName("alice")
+                        .messageType(MessageType.CHAT)
+                        .timestamp(LocalDateTime.of(2024, 5, 1, 12, 0).plusSeconds(seq))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.dto.ChatMessageResponse;
+import com.example.chatapp.domain.chat.dto.MessageType;
+import com.example.chatapp.domain.chat.interceptor.WireFormatChannelInterceptor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * compact(CBOR) 인코딩의 필드 배치와, ChatMessageWireFormatBenchmark 와 같은 메시지/헤더로 만든
+ * STOMP MESSAGE 프레임이 JSON 프레임보다 작은지 확인한다.
+ */
+class CompactChatMessageEncoderTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+
+    private final ChatMessageResponseEncoder jsonEncoder = new ChatMessageResponseEncoder();
+    private final CompactChatMessageEncoder compactEncoder = new CompactChatMessageEncoder();
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Test
+    void encodesMessageAsPositionalArray() throws Exception {
+        JsonNode fields = cborMapper.readTree(compactEncoder.encodeFromJson(jsonEncoder.encode(message("hello"))));
+
+        assertThat(fields.isArray()).isTrue();
+        assertThat(fields).hasSize(6);
+        assertThat(fields.get(0).asText()).isEqualTo("CHAT");
+        assertThat(fields.get(1).asText()).isEqualTo("user-4821");
+        // senderName 이 senderId 와 같으면 생략한다
+        assertThat(fields.get(2).isNull()).isTrue();
+        assertThat(fields.get(3).asText()).isEqualTo("hello");
+        assertThat(fields.get(4).asLong()).isEqualTo(TIMESTAMP.atZone(ZoneId.systemDefault()).toEpochSecond());
+        assertThat(fields.get(5).asLong()).isEqualTo(1_234_567L);
+    }
+
+    @Test
+    void encodesBackfillAsArrayOfMessages() throws Exception {
+        byte[] json = jsonEncoder.encode(message("hello"));
+        byte[] backfill = backfill(json, 3);
+
+        JsonNode messages = cborMapper.readTree(compactEncoder.encodeFromJson(backfill));
+
+        assertThat(messages).hasSize(3);
+        assertThat(messages.get(2).get(3).asText()).isEqualTo("hello");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"short", "long", "multibyte"})
+    void compactFrameIsSmallerThanJsonFrame(String kind) {
+        byte[] json = jsonEncoder.encode(message(text(kind)));
+        byte[] backfill = backfill(json, 50);
+
+        int jsonFrame = stompEncoder.encode(messageHeaders(false), json).length;
+        int compactFrame = stompEncoder.encode(messageHeaders(true), compactEncoder.encodeFromJson(json)).length;
+        int jsonBackfillFrame = stompEncoder.encode(messageHeaders(false), backfill).length;
+        int compactBackfillFrame = stompEncoder.encode(messageHeaders(true), compactEncoder.encodeFromJson(backfill)).length;
+
+        assertThat(compactFrame).isLessThan(jsonFrame);
+        assertThat(compactBackfillFrame).isLessThan(jsonBackfillFrame);
+        // 필드 이름과 ISO 시각 문자열이 빠지므로 메시지마다 최소 그만큼은 줄어든다
+        assertThat(jsonBackfillFrame - compactBackfillFrame).isGreaterThan(50 * 100);
+    }
+
+    private static String text(String kind) {
+        return switch (kind) {
+            case "short" -> "ok see you at 3";
+            case "long" -> "meeting notes: ".repeat(60);
+            default -> "안녕하세요 오늘 회의는 세 시에 시작합니다 ".repeat(10);
+        };
+    }
+
+    private static ChatMessageResponse message(String text) {
+        return ChatMessageResponse.builder()
+                .roomId("a1b2c3d4")
+                .seq(1_234_567L)
+                .message(text)
+                .senderId("user-4821")
+                .senderName("user-4821")
+                .messageType(MessageType.CHAT)
+                .timestamp(TIMESTAMP)
+                .build();
+    }
+
+    private static byte[] backfill(byte[] json, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(json);
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private static Map<String, Object> messageHeaders(boolean compact) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/sub/room/a1b2c3d4");
+        accessor.setMessageId("session-1-42");
+        if (compact) {
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(WireFormatChannelInterceptor.WIRE_FORMAT_HEADER,
+                    WireFormatChannelInterceptor.CBOR_FORMAT);
+        } else {
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        }
+        return accessor.getMessageHeaders();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.domain.chat.service.MessageRateLimiter.Decision;
+import com.example.chatapp.global.metrics.ChatMetrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * GCRA 제한을 local(JVM 안 CAS)과 redis(Lua 스크립트) 두 모드에서 같은 기준으로 확인한다.
+ * burst 만큼은 한꺼번에 허용하고, 그 뒤로는 emission interval(1 / rate)마다 한 건씩,
+ * 재시도 시각 직전에는 거절하고 그 시각이 지나면 한 건만 허용하는지 본다.
+ */
+@Testcontainers
+class MessageRateLimiterTest {
+
+    private static final double RATE_PER_SECOND = 5;
+    private static final long INTERVAL_MS = 200;
+    private static final int BURST = 3;
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ChatMetrics chatMetrics = mock(ChatMetrics.class);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"local", "redis"})
+    void allowsBurstAtOnceThenLimitsUser(String mode) {
+        MessageRateLimiter limiter = newLimiter(mode, redisTemplate, RATE_PER_SECOND, BURST, 1_000, 1_000);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(limiter.tryAcquire("alice", "room-1").isAllowed()).as("message %d", i).isTrue();
+        }
+        Decision limited = limiter.tryAcquire("alice", "room-1");
+
+        assertThat(limited.isAllowed()).isFalse();
+        assertThat(limited.getScope()).isEqualTo(MessageRateLimiter.SCOPE_USER);
+        // 남은 시간은 한 emission interval 이하
+        assertThat(limited.getRetryAfterMs()).isBetween(INTERVAL_MS / 2, INTERVAL_MS + 1);
+        verify(chatMetrics, times(1)).rateLimited(MessageRateLimiter.SCOPE_USER);
+
+        // 다른 사용자의 버킷은 따로다
+        assertThat(limiter.tryAcquire("bob", "room-1").isAllowed()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"local", "redis"})
+    void allowsExactlyOneMessageAtEmissionIntervalBoundary(String mode) throws Exception {
+        MessageRateLimiter limiter = newLimiter(mode, redisTemplate, RATE_PER_SECOND, BURST, 1_000, 1_000);
+        for (int i = 0; i < BURST; i++) {
+            limiter.tryAcquire("alice", "room-1");
+        }
+
+        Decision first = limiter.tryAcquire("alice", "room-1");
+        assertThat(first.isAllowed()).isFalse();
+
+        // 재시도 시각 직전에는 여전히 거절되고, 남은 시간도 그만큼 줄어 있다
+        Thread.sleep(first.getRetryAfterMs() - INTERVAL_MS / 2);
+        Decision beforeBoundary = limiter.tryAcquire("alice", "room-1");
+        assertThat(beforeBoundary.isAllowed()).isFalse();
+        assertThat(beforeBoundary.getRetryAfterMs()).isLessThanOrEqualTo(INTERVAL_MS / 2 + 1);
+
+        // 재시도 시각이 지나면 한 건만 허용하고 다시 한 interval 을 기다려야 한다
+        Thread.sleep(beforeBoundary.getRetryAfterMs());
+        assertThat(limiter.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        Decision afterBoundary = limiter.tryAcquire("alice", "room-1");
+        assertThat(afterBoundary.isAllowed()).isFalse();
+        assertThat(afterBoundary.getRetryAfterMs()).isBetween(INTERVAL_MS / 2, INTERVAL_MS + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"local", "redis"})
+    void sustainsConfiguredRateAfterBurst(String mode) throws Exception {
+        double ratePerSecond = 50;
+        long intervalMs = 20;
+        MessageRateLimiter limiter = newLimiter(mode, redisTemplate, ratePerSecond, 2, 1_000, 1_000);
+
+        long start = System.nanoTime();
+        int allowed = 0;
+        while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500)) {
+            if (limiter.tryAcquire("alice", "room-1").isAllowed()) {
+                allowed++;
+            }
+            Thread.sleep(2);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // burst 2 건 + 지난 시간 동안 interval 마다 한 건
+        long expected = 2 + elapsedMs / intervalMs;
+        assertThat((long) allowed).isBetween(expected - 2, expected + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"local", "redis"})
+    void roomLimitDoesNotConsumeUserToken(String mode) {
+        MessageRateLimiter limiter = newLimiter(mode, redisTemplate, RATE_PER_SECOND, 1, RATE_PER_SECOND, 2);
+
+        assertThat(limiter.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        assertThat(limiter.tryAcquire("bob", "room-1").isAllowed()).isTrue();
+        Decision limited = limiter.tryAcquire("carol", "room-1");
+
+        assertThat(limited.isAllowed()).isFalse();
+        assertThat(limited.getScope()).isEqualTo(MessageRateLimiter.SCOPE_ROOM);
+        verify(chatMetrics).rateLimited(MessageRateLimiter.SCOPE_ROOM);
+        // 방 한도에 걸린 메시지는 carol 의 burst 1 건을 쓰지 않았다
+        assertThat(limiter.tryAcquire("carol", "room-2").isAllowed()).isTrue();
+    }
+
+    @Test
+    void redisModeSharesBucketsAcrossNodes() {
+        MessageRateLimiter nodeA = newLimiter("redis", redisTemplate, RATE_PER_SECOND, BURST, 1_000, 1_000);
+        MessageRateLimiter nodeB = newLimiter("redis", redisTemplate, RATE_PER_SECOND, BURST, 1_000, 1_000);
+
+        assertThat(nodeA.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        assertThat(nodeB.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        assertThat(nodeA.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        assertThat(nodeB.tryAcquire("alice", "room-1").isAllowed()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fallsBackToLocalBucketWhenRedisFails() {
+        RedisTemplate<String, String> failing = mock(RedisTemplate.class);
+        when(failing.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("redis down"));
+        MessageRateLimiter limiter = newLimiter("redis", failing, RATE_PER_SECOND, BURST, 1_000, 1_000);
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(limiter.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        }
+        assertThat(limiter.tryAcquire("alice", "room-1").getScope()).isEqualTo(MessageRateLimiter.SCOPE_USER);
+    }
+
+    @Test
+    void allowsEverythingWhenDisabled() {
+        MessageRateLimiter limiter = newLimiter("local", redisTemplate, RATE_PER_SECOND, 1, 1_000, 1_000);
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("alice", "room-1").isAllowed()).isTrue();
+        }
+        verify(chatMetrics, never()).rateLimited(any());
+    }
+
+    private MessageRateLimiter newLimiter(String mode, RedisTemplate<String, String> template,
+                                          double userRate, int userBurst, double roomRate, int roomBurst) {
+        MessageRateLimiter limiter = new MessageRateLimiter(template, chatMetrics);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "mode", mode);
+        ReflectionTestUtils.setField(limiter, "userRatePerSecond", userRate);
+        ReflectionTestUtils.setField(limiter, "userBurst", userBurst);
+        ReflectionTestUtils.setField(limiter, "roomRatePerSecond", roomRate);
+        ReflectionTestUtils.setField(limiter, "roomBurst", roomBurst);
+        ReflectionTestUtils.setField(limiter, "maximumBuckets", 1_000L);
+        limiter.init();
+        return limiter;
+    }
+}
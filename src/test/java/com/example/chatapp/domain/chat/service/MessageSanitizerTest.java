@@ -0,0 +1,100 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * max-length(1000) 경계에서 엔티티와 서로게이트 쌍이 잘리지 않고, 잘리면 "..." 가 붙는지 확인한다.
+ */
+class MessageSanitizerTest {
+
+    private static final int MAX_LENGTH = 1000;
+    private static final String EMOJI = "😀";
+
+    private final MessageSanitizer sanitizer = new MessageSanitizer();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sanitizer, "maxLength", MAX_LENGTH);
+    }
+
+    @Test
+    void returnsSameInstanceWhenNothingChanges() {
+        String message = "hello " + EMOJI;
+        assertThat(sanitizer.sanitize(message)).isSameAs(message);
+    }
+
+    @Test
+    void trimsAndEscapes() {
+        assertThat(sanitizer.sanitize("  <b>\"Tom\" & 'Jerry'</b>\n"))
+                .isEqualTo("&lt;b&gt;&quot;Tom&quot; &amp; &#39;Jerry&#39;&lt;/b&gt;");
+        assertThat(sanitizer.sanitize(null)).isEmpty();
+    }
+
+    @Test
+    void keepsMessageOfExactlyMaxLength() {
+        String message = "a".repeat(MAX_LENGTH);
+        assertThat(sanitizer.sanitize(message)).isSameAs(message);
+    }
+
+    @Test
+    void truncatesPlainTextWithEllipsis() {
+        assertThat(sanitizer.sanitize("a".repeat(MAX_LENGTH + 1)))
+                .isEqualTo("a".repeat(MAX_LENGTH) + "...");
+    }
+
+    @Test
+    void keepsEntityThatEndsExactlyAtMaxLength() {
+        String result = sanitizer.sanitize("a".repeat(MAX_LENGTH - 5) + "&");
+        assertThat(result).isEqualTo("a".repeat(MAX_LENGTH - 5) + "&amp;");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4})
+    void doesNotSplitEntityAcrossMaxLength(int overlap) {
+        // 엔티티가 max-length 를 overlap 글자만큼 넘는 위치에 온다
+        String prefix = "a".repeat(MAX_LENGTH - 5 + overlap);
+        String result = sanitizer.sanitize(prefix + "&" + "b");
+
+        assertThat(result).isEqualTo(prefix + "...");
+        assertThat(result).doesNotContain("&");
+    }
+
+    @Test
+    void doesNotSplitSurrogatePairAtMaxLength() {
+        String result = sanitizer.sanitize("a".repeat(MAX_LENGTH - 1) + EMOJI);
+
+        assertThat(result).isEqualTo("a".repeat(MAX_LENGTH - 1) + "...");
+        assertThat(result.chars().noneMatch(c -> Character.isSurrogate((char) c))).isTrue();
+    }
+
+    @Test
+    void keepsSurrogatePairThatEndsExactlyAtMaxLength() {
+        String message = "a".repeat(MAX_LENGTH - 2) + EMOJI + "&";
+        assertThat(sanitizer.sanitize(message)).isEqualTo("a".repeat(MAX_LENGTH - 2) + EMOJI + "...");
+    }
+
+    @Test
+    void replacesLoneSurrogates() {
+        assertThat(sanitizer.sanitize("a\uD83Db")).isEqualTo("a�b");
+        assertThat(sanitizer.sanitize("a\uDE00")).isEqualTo("a�");
+    }
+
+    @Test
+    void dropsWhitespaceBeforeEllipsis() {
+        String result = sanitizer.sanitize("a".repeat(MAX_LENGTH - 5) + "     " + "b".repeat(10));
+        assertThat(result).isEqualTo("a".repeat(MAX_LENGTH - 5) + "...");
+    }
+
+    @Test
+    void escapeHtmlMatchesSanitizeEscaping() {
+        String text = "tom&jerry <3 \"it's\"";
+        assertThat(MessageSanitizer.escapeHtml(text)).isEqualTo(sanitizer.sanitize(text));
+        assertThat(MessageSanitizer.escapeHtml("plain")).isEqualTo("plain");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 여러 노드가 같은 방에 동시에 번호를 받아도 1 부터 빈틈과 중복 없이 발급되고, 방마다 번호가 따로 매겨지는지 확인한다.
+ * Redis 장애 시에는 예외 대신 null 을 돌려준다.
+ */
+@Testcontainers
+class MessageSequencerTest {
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void issuesGapFreeUniqueSequencesAcrossNodes() throws Exception {
+        // 노드마다 따로 만든 발급기가 같은 Redis 를 쓴다
+        List<MessageSequencer> nodes = List.of(new MessageSequencer(redisTemplate), new MessageSequencer(redisTemplate));
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                MessageSequencer node = nodes.get(i % nodes.size());
+                futures.add(executor.submit(() -> issued.add(node.next("concurrent-room"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(issued).isEqualTo(LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toSet()));
+    }
+
+    @Test
+    void numbersEachRoomIndependently() {
+        MessageSequencer sequencer = new MessageSequencer(redisTemplate);
+
+        assertThat(sequencer.next("room-a")).isEqualTo(1L);
+        assertThat(sequencer.next("room-a")).isEqualTo(2L);
+        assertThat(sequencer.next("room-b")).isEqualTo(1L);
+        assertThat(redisTemplate.opsForValue().get(MessageSequencer.SEQUENCE_KEY_PREFIX + "room-a")).isEqualTo("2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void returnsNullWhenRedisFails() {
+        RedisTemplate<String, String> failingTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(failingTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(MessageSequencer.SEQUENCE_KEY_PREFIX + "room-1"))
+                .thenThrow(new QueryTimeoutException("redis timeout"));
+
+        assertThat(new MessageSequencer(failingTemplate).next("room-1")).isNull();
+    }
+}
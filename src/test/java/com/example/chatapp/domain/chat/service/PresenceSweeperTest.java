@@ -0,0 +1,162 @@
+package com.example.chatapp.domain.chat.service;
+
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실제 Redis 에서 heartbeat 가 끊긴 멤버를 sweep 한다.
+ * 이 노드에 세션이 살아 있는 사용자는 퇴장시키지 않고 다음 flush 에 다시 기록되며,
+ * 세션이 없는 사용자는 엔진이, 어느 엔진도 모르는 사용자는 리더가 퇴장 처리한다.
+ */
+@Testcontainers
+class PresenceSweeperTest {
+
+    private static final String NODE_ID = "node-a";
+    private static final String ROOM_ID = "room-1";
+    private static final long STALE_AFTER_MS = 60_000;
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ClusterMessageRelay clusterMessageRelay = mock(ClusterMessageRelay.class);
+    private final ChatService chatService = mock(ChatService.class);
+
+    private PresenceHeartbeatRecorder recorder;
+    private RoomPresenceEngine engine;
+    private PresenceSweeper sweeper;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        when(clusterMessageRelay.getNodeId()).thenReturn(NODE_ID);
+
+        recorder = new PresenceHeartbeatRecorder(redisTemplate, clusterMessageRelay);
+        ReflectionTestUtils.setField(recorder, "staleAfterMs", STALE_AFTER_MS);
+
+        engine = new RoomPresenceEngine(chatService, recorder);
+        ReflectionTestUtils.setField(engine, "gracePeriodMs", 10_000L);
+        engine.start();
+
+        sweeper = new PresenceSweeper(redisTemplate, mock(RedisMessageListenerContainer.class), clusterMessageRelay,
+                engine, chatService);
+        ReflectionTestUtils.setField(sweeper, "clusterEnabled", false);
+        ReflectionTestUtils.setField(sweeper, "staleAfterMs", STALE_AFTER_MS);
+        ReflectionTestUtils.setField(sweeper, "sweepIntervalMs", 5_000L);
+        ReflectionTestUtils.setField(sweeper, "sweepBatchSize", 100);
+        ReflectionTestUtils.setField(sweeper, "sweepMaxMembers", 1_000);
+        sweeper.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void memberWithLiveSessionIsRecordedAgainAfterSweep() {
+        engine.sessionConnected(ROOM_ID, "alice", "session-1");
+        recordJoin("alice", System.currentTimeMillis() - 2 * STALE_AFTER_MS);
+
+        sweeper.sweep();
+        recorder.flush();
+
+        verify(chatService, never()).handleUserLeave(anyString(), anyString());
+        verify(chatService, never()).handleExpiredPresence(anyString(), anyString());
+        assertThat(recorder.getActiveMembers(ROOM_ID)).containsExactly("alice");
+        assertThat(redisTemplate.opsForHash().get(PresenceHeartbeatRecorder.PRESENCE_OWNER_KEY_PREFIX + ROOM_ID, "alice"))
+                .isEqualTo(NODE_ID);
+        assertThat(redisTemplate.opsForSet().isMember(PresenceHeartbeatRecorder.PRESENCE_ROOMS_KEY, ROOM_ID)).isTrue();
+
+        // 이후 heartbeat 도 계속 기록된다
+        recorder.record(ROOM_ID, "alice");
+        recorder.flush();
+        assertThat(recorder.getActiveMembers(ROOM_ID)).containsExactly("alice");
+    }
+
+    @Test
+    void memberWithoutLiveSessionLeavesThroughEngine() {
+        engine.join(ROOM_ID, "bob");
+        recordJoin("bob", System.currentTimeMillis() - 2 * STALE_AFTER_MS);
+
+        sweeper.sweep();
+
+        verify(chatService).handleUserLeave(ROOM_ID, "bob");
+        verify(chatService, never()).handleExpiredPresence(anyString(), anyString());
+        assertThat(redisTemplate.opsForZSet().score(PresenceHeartbeatRecorder.PRESENCE_KEY_PREFIX + ROOM_ID, "bob"))
+                .isNull();
+        assertThat(redisTemplate.opsForSet().isMember(PresenceHeartbeatRecorder.PRESENCE_ROOMS_KEY, ROOM_ID)).isFalse();
+    }
+
+    @Test
+    void memberUnknownToEngineIsExpiredByLeader() {
+        recordJoin("carol", System.currentTimeMillis() - 2 * STALE_AFTER_MS);
+
+        sweeper.sweep();
+
+        verify(chatService).handleExpiredPresence(ROOM_ID, "carol");
+    }
+
+    @Test
+    void freshMembersAreNotSwept() {
+        engine.join(ROOM_ID, "dave");
+        recordJoin("dave", System.currentTimeMillis());
+
+        sweeper.sweep();
+
+        verify(chatService, never()).handleUserLeave(anyString(), anyString());
+        assertThat(recorder.getActiveMembers(ROOM_ID)).containsExactly("dave");
+    }
+
+    // ChatService 의 입장 파이프라인과 같은 방식으로 기록한다
+    private void recordJoin(String userId, long timestamp) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                recorder.recordNow((RedisOperations<String, String>) operations, ROOM_ID, userId, timestamp);
+                return null;
+            }
+        });
+    }
+}
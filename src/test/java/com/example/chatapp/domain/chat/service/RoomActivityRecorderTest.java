@@ -0,0 +1,68 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실패한 flush 의 활동이 버려지지 않고 다음 flush 에 그 사이 활동과 합쳐 기록되는지 확인한다.
+ */
+class RoomActivityRecorderTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    private final RoomActivityRecorder recorder = new RoomActivityRecorder(redisTemplate);
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void restoresBatchWhenFlushFails() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new QueryTimeoutException("redis down"))
+                .thenReturn(List.of());
+
+        recorder.record("room", "alice");
+        recorder.flush();
+        recorder.record("room", "bob");
+        recorder.flush();
+
+        ArgumentCaptor<SessionCallback> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate, times(2)).executePipelined(callback.capture());
+
+        RedisOperations<String, String> operations = mock(RedisOperations.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(operations.opsForZSet()).thenReturn(zSetOperations);
+        callback.getValue().execute(operations);
+
+        ArgumentCaptor<Set<TypedTuple<String>>> tuples = ArgumentCaptor.forClass(Set.class);
+        verify(zSetOperations).add(eq(RoomActivityRecorder.ACTIVITY_KEY_PREFIX + "room"), tuples.capture());
+        assertThat(tuples.getValue()).extracting(TypedTuple::getValue).containsExactlyInAnyOrder("alice", "bob");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void doesNotFlushTwiceAfterSuccess() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of());
+
+        recorder.record("room", "alice");
+        recorder.flush();
+        recorder.flush();
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.chatapp.domain.chat.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 세션 참조 카운트에 따른 입장/퇴장, 유예 시간 만료와 유예 중 재접속, heartbeat 만료 처리,
+ * 같은 사용자의 입장/퇴장 전달 순서를 확인한다.
+ */
+class RoomPresenceEngineTest {
+
+    private static final String ROOM_ID = "room-1";
+    private static final String USER_ID = "alice";
+    private static final long GRACE_PERIOD_MS = 200;
+
+    private final ChatService chatService = mock(ChatService.class);
+    private final PresenceHeartbeatRecorder presenceHeartbeatRecorder = mock(PresenceHeartbeatRecorder.class);
+    private final RoomPresenceEngine engine = new RoomPresenceEngine(chatService, presenceHeartbeatRecorder);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "gracePeriodMs", GRACE_PERIOD_MS);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void joinsOnceForSeveralSessions() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-2");
+        engine.join(ROOM_ID, USER_ID);
+
+        verify(chatService, times(1)).handleUserJoin(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void leavesImmediatelyOnExplicitLeaveAndNotAgainOnDisconnect() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.leave(ROOM_ID, USER_ID);
+        verify(chatService, times(1)).handleUserLeave(ROOM_ID, USER_ID);
+
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-1");
+        verify(chatService, after(GRACE_PERIOD_MS * 3).times(1)).handleUserLeave(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void leavesWhenGracePeriodExpiresAfterLastSession() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-2");
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-2");
+
+        verify(chatService, never()).handleUserLeave(ROOM_ID, USER_ID);
+        verify(chatService, timeout(GRACE_PERIOD_MS * 5).times(1)).handleUserLeave(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void rejoinWithinGracePeriodCancelsLeave() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-2");
+
+        verify(chatService, after(GRACE_PERIOD_MS * 3).never()).handleUserLeave(ROOM_ID, USER_ID);
+        verify(chatService, times(1)).handleUserJoin(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void rejoinAfterGracePeriodJoinsAgain() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-1");
+        verify(chatService, timeout(GRACE_PERIOD_MS * 5).times(1)).handleUserLeave(ROOM_ID, USER_ID);
+
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-2");
+
+        verify(chatService, times(2)).handleUserJoin(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void stopFlushesPendingLeaves() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+        engine.sessionDisconnected(ROOM_ID, USER_ID, "tab-1");
+
+        engine.stop();
+
+        verify(chatService, times(1)).handleUserLeave(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void expiredPresenceWithLiveSessionIsRecordedAgainInsteadOfLeaving() {
+        engine.sessionConnected(ROOM_ID, USER_ID, "tab-1");
+
+        assertThat(engine.expirePresence(ROOM_ID, USER_ID)).isTrue();
+
+        verify(presenceHeartbeatRecorder).record(ROOM_ID, USER_ID);
+        verify(chatService, never()).handleUserLeave(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void expiredPresenceWithoutSessionLeaves() {
+        engine.join(ROOM_ID, USER_ID);
+
+        assertThat(engine.expirePresence(ROOM_ID, USER_ID)).isTrue();
+        assertThat(engine.expirePresence(ROOM_ID, USER_ID)).isFalse();
+
+        verify(chatService, times(1)).handleUserLeave(ROOM_ID, USER_ID);
+        verify(presenceHeartbeatRecorder, never()).record(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void deliversJoinAndLeaveInTheOrderTheyHappened() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> events.add("JOIN")).when(chatService).handleUserJoin(ROOM_ID, USER_ID);
+        doAnswer(invocation -> {
+            // 리스너가 느려도 다음 입장이 앞지르지 못해야 한다
+            Thread.sleep(1);
+            return events.add("LEAVE");
+        }).when(chatService).handleUserLeave(ROOM_ID, USER_ID);
+
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 100; round++) {
+                        engine.join(ROOM_ID, USER_ID);
+                        engine.leave(ROOM_ID, USER_ID);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(events).isNotEmpty();
+        for (int i = 0; i < events.size(); i++) {
+            assertThat(events.get(i)).as("event %d", i).isEqualTo(i % 2 == 0 ? "JOIN" : "LEAVE");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chatapp.domain.chatroom.controller;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomPageResponse;
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+import com.example.chatapp.domain.chatroom.service.ChatRoomService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 방 목록 페이지의 weak ETag 로 같은 페이지는 본문 없이 304 를 돌려주고, 보이는 값이 바뀌면 ETag 가 바뀌는지,
+ * 잘못된 커서는 400 으로 거절되는지 확인한다.
+ */
+class ChatRoomControllerTest {
+
+    private final ChatRoomService chatRoomService = mock(ChatRoomService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ChatRoomController(chatRoomService)).build();
+
+    @Test
+    void returnsWeakEtagAndNotModifiedForSamePage() throws Exception {
+        when(chatRoomService.getChatRoomPage(anyInt(), any(), any())).thenReturn(page(3, "next"));
+
+        String etag = mockMvc.perform(get("/api/chatrooms/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms[0].roomId").value("a1b2c3d4"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/chatrooms/page").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changesEtagWhenVisibleValuesChange() throws Exception {
+        when(chatRoomService.getChatRoomPage(anyInt(), any(), any()))
+                .thenReturn(page(3, "next"), page(4, "next"), page(4, null));
+
+        String first = etag();
+        String participantsChanged = etag();
+        String cursorChanged = etag();
+
+        assertThat(participantsChanged).isNotEqualTo(first);
+        assertThat(cursorChanged).isNotEqualTo(participantsChanged);
+
+        when(chatRoomService.getChatRoomPage(anyInt(), any(), any())).thenReturn(page(3, "next"));
+        mockMvc.perform(get("/api/chatrooms/page").header(HttpHeaders.IF_NONE_MATCH, participantsChanged))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        when(chatRoomService.getChatRoomPage(anyInt(), eq("broken"), any()))
+                .thenThrow(new IllegalArgumentException("Malformed room list cursor"));
+
+        mockMvc.perform(get("/api/chatrooms/page").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String etag() throws Exception {
+        return mockMvc.perform(get("/api/chatrooms/page"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static ChatRoomPageResponse page(int participantCount, String nextCursor) {
+        ChatRoomResponse room = ChatRoomResponse.builder()
+                .id(42L)
+                .roomId("a1b2c3d4")
+                .roomName("general")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 9, 0))
+                .updatedAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                .participantCount(participantCount)
+                .build();
+        return ChatRoomPageResponse.builder()
+                .rooms(List.of(room))
+                .nextCursor(nextCursor)
+                .hasMore(nextCursor != null)
+                .build();
+    }
+}
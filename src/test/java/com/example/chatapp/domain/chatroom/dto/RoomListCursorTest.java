@@ -0,0 +1,62 @@
+package com.example.chatapp.domain.chatroom.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 커서가 (updatedAt, id) 를 그대로 되돌려 주고, updatedAt 이 없는 행은 createdAt 으로 대신하며,
+ * 손상된 커서는 IllegalArgumentException 으로 거절되는지 확인한다.
+ */
+class RoomListCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 9, 0, 0);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void roundTripsUpdatedAtAndId() {
+        String encoded = RoomListCursor.from(room(UPDATED_AT)).encode();
+
+        RoomListCursor decoded = RoomListCursor.decode(encoded);
+
+        assertThat(decoded.getUpdatedAt()).isEqualTo(UPDATED_AT);
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(encoded).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void fallsBackToCreatedAtWhenUpdatedAtIsMissing() {
+        RoomListCursor decoded = RoomListCursor.decode(RoomListCursor.from(room(null)).encode());
+
+        assertThat(decoded.getUpdatedAt()).isEqualTo(CREATED_AT);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not-base64!", "2024-05-01T12:30:15|", "|42", "2024-05-01T12:30:15", "null|42",
+            "2024-05-01T12:30:15|abc"})
+    void rejectsMalformedCursor(String raw) {
+        String cursor = raw.equals("not-base64!") ? raw
+                : Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> RoomListCursor.decode(cursor)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ChatRoomResponse room(LocalDateTime updatedAt) {
+        return ChatRoomResponse.builder()
+                .id(42L)
+                .roomId("a1b2c3d4")
+                .roomName("general")
+                .createdAt(CREATED_AT)
+                .updatedAt(updatedAt)
+                .participantCount(3)
+                .build();
+    }
+}
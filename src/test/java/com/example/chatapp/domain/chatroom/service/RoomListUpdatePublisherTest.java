@@ -0,0 +1,71 @@
+package com.example.chatapp.domain.chatroom.service;
+
+import com.example.chatapp.domain.chatroom.dto.ChatRoomResponse;
+import com.example.chatapp.domain.chatroom.dto.ParticipantCount;
+import com.example.chatapp.domain.chatroom.dto.RoomChangeType;
+import com.example.chatapp.domain.chatroom.dto.RoomListDelta;
+import com.example.chatapp.domain.chatroom.dto.RoomListDelta.RoomChange;
+import com.example.chatapp.global.messaging.ClusterMessageRelay;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 한 윈도우 안의 방 변경이 하나로 합쳐지고, 늦게 도착한 인원 수가 최신 값을 덮지 않는지 확인한다.
+ */
+class RoomListUpdatePublisherTest {
+
+    private final ClusterMessageRelay relay = mock(ClusterMessageRelay.class);
+    private final RoomListUpdatePublisher publisher = new RoomListUpdatePublisher(relay);
+
+    @Test
+    void keepsNewestParticipantCountWhenResultsArriveOutOfOrder() {
+        publisher.roomUpdated("room", new ParticipantCount(6, 11));
+        publisher.roomUpdated("room", new ParticipantCount(5, 10));
+
+        assertThat(flushSingleChange().getParticipantCount()).isEqualTo(6);
+    }
+
+    @Test
+    void foldsUpdatesIntoCreatedChange() {
+        ChatRoomResponse room = ChatRoomResponse.builder().roomId("room").participantCount(0).build();
+        publisher.roomCreated(room);
+        publisher.roomUpdated("room", new ParticipantCount(2, 2));
+        publisher.roomUpdated("room", new ParticipantCount(1, 1));
+
+        RoomChange change = flushSingleChange();
+        assertThat(change.getChangeType()).isEqualTo(RoomChangeType.CREATED);
+        assertThat(change.getParticipantCount()).isEqualTo(2);
+        assertThat(change.getRoom().getParticipantCount()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsUpdateThatArrivedBeforeCreated() {
+        publisher.roomUpdated("room", new ParticipantCount(1, 1));
+        publisher.roomCreated(ChatRoomResponse.builder().roomId("room").participantCount(0).build());
+
+        RoomChange change = flushSingleChange();
+        assertThat(change.getChangeType()).isEqualTo(RoomChangeType.CREATED);
+        assertThat(change.getParticipantCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteWinsOverLaterUpdates() {
+        publisher.roomUpdated("room", new ParticipantCount(3, 3));
+        publisher.roomDeleted("room");
+        publisher.roomUpdated("room", new ParticipantCount(2, 4));
+
+        assertThat(flushSingleChange().getChangeType()).isEqualTo(RoomChangeType.DELETED);
+    }
+
+    private RoomChange flushSingleChange() {
+        publisher.flush();
+        ArgumentCaptor<Object> delta = ArgumentCaptor.forClass(Object.class);
+        verify(relay).sendToRoomList(delta.capture());
+        assertThat(((RoomListDelta) delta.getValue()).getChanges()).hasSize(1);
+        return ((RoomListDelta) delta.getValue()).getChanges().get(0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.chatapp.global.config.websocket;
+
+import org.apache.tomcat.websocket.server.WsContextListener;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 Tomcat 에서 업그레이드 응답의 Sec-WebSocket-Extensions 헤더로 permessage-deflate 협상 여부를 확인한다.
+ */
+class CompressionAwareHandshakeHandlerTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void negotiatesPermessageDeflateOnlyWhenEnabled(boolean compressionEnabled) throws Exception {
+        try (AnnotationConfigServletWebServerApplicationContext context = start(compressionEnabled)) {
+            int port = context.getWebServer().getPort();
+            Map<String, String> headers = upgrade(port);
+
+            assertThat(headers.get("status")).contains("101");
+            String extensions = headers.getOrDefault("sec-websocket-extensions", "");
+            if (compressionEnabled) {
+                assertThat(extensions).contains("permessage-deflate");
+            } else {
+                assertThat(extensions).doesNotContain("permessage-deflate");
+            }
+        }
+    }
+
+    private static AnnotationConfigServletWebServerApplicationContext start(boolean compressionEnabled) {
+        AnnotationConfigServletWebServerApplicationContext context = new AnnotationConfigServletWebServerApplicationContext();
+        context.registerBean(CompressionAwareHandshakeHandler.class, () -> new CompressionAwareHandshakeHandler(compressionEnabled));
+        context.register(TestWebSocketConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    private static Map<String, String> upgrade(int port) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /ws HTTP/1.1\r\n"
+                    + "Host: localhost:" + port + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n"
+                    + "Sec-WebSocket-Extensions: permessage-deflate; client_max_window_bits\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Map<String, String> headers = new HashMap<>();
+            headers.put("status", reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+            return headers;
+        }
+    }
+
+    @Configuration
+    @EnableWebSocket
+    static class TestWebSocketConfig implements WebSocketConfigurer {
+
+        private final CompressionAwareHandshakeHandler handshakeHandler;
+
+        TestWebSocketConfig(CompressionAwareHandshakeHandler handshakeHandler) {
+            this.handshakeHandler = handshakeHandler;
+        }
+
+        @Bean
+        TomcatServletWebServerFactory tomcatServletWebServerFactory() {
+            TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+            // Boot 자동 설정이 하던 것처럼 Tomcat 의 WebSocket ServerContainer 를 등록한다
+            factory.addContextCustomizers(context -> context.addApplicationListener(WsContextListener.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        DispatcherServlet dispatcherServlet() {
+            return new DispatcherServlet();
+        }
+
+        @Override
+        public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+            registry.addHandler(new TextWebSocketHandler(), "/ws")
+                    .setHandshakeHandler(handshakeHandler)
+                    .setAllowedOriginPatterns("*");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.chatapp.global.messaging;
+
+import com.example.chatapp.ChatApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 두 개의 애플리케이션 컨텍스트를 같은 Redis 에 붙여 노드 간 fan-out 을 검증한다.
+ * 다른 노드의 메시지는 정확히 한 번 전달되고, 자기 노드가 발행한 메시지는 Redis 로 되돌아와 중복 전달되지 않으며,
+ * 각 노드는 로컬 구독자가 있는 방의 채널만 구독한다.
+ */
+@Testcontainers
+class ClusterFanOutIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @AfterEach
+    void disconnect() {
+        sessions.forEach(StompSession::disconnect);
+        sessions.clear();
+    }
+
+    @Test
+    void deliversEachMessageExactlyOnceOnEveryNode() throws Exception {
+        String roomId = "fanout-" + UUID.randomUUID();
+        Client alice = connect(nodeA, "alice", roomId);
+        Client bob = connect(nodeB, "bob", roomId);
+        awaitRoomChannel(roomId, 2);
+
+        String fromA = "hello from a " + UUID.randomUUID();
+        String fromB = "hello from b " + UUID.randomUUID();
+        alice.send(fromA);
+        bob.send(fromB);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(alice.count(fromA)).isEqualTo(1);
+            assertThat(alice.count(fromB)).isEqualTo(1);
+            assertThat(bob.count(fromA)).isEqualTo(1);
+            assertThat(bob.count(fromB)).isEqualTo(1);
+        });
+
+        // 자기 발행분이 Redis 에서 되돌아와 늦게 한 번 더 도착하지 않는지 잠시 더 지켜본다
+        TimeUnit.MILLISECONDS.sleep(1000);
+        assertThat(alice.count(fromA)).isEqualTo(1);
+        assertThat(alice.count(fromB)).isEqualTo(1);
+        assertThat(bob.count(fromA)).isEqualTo(1);
+        assertThat(bob.count(fromB)).isEqualTo(1);
+    }
+
+    @Test
+    void subscribesOnlyToRoomsWithLocalSubscribers() throws Exception {
+        String sharedRoom = "shared-" + UUID.randomUUID();
+        String localRoom = "local-" + UUID.randomUUID();
+        connect(nodeA, "carol", sharedRoom);
+        connect(nodeB, "dave", sharedRoom);
+        Client erin = connect(nodeA, "erin", localRoom);
+
+        awaitRoomChannel(sharedRoom, 2);
+        awaitRoomChannel(localRoom, 1);
+        assertThat(registry(nodeA).getActiveRooms()).contains(sharedRoom, localRoom);
+        assertThat(registry(nodeB).getActiveRooms()).contains(sharedRoom).doesNotContain(localRoom);
+
+        // 마지막 구독자가 나가면 채널 구독도 해제된다
+        erin.session.disconnect();
+        sessions.remove(erin.session);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(registry(nodeA).getActiveRooms()).doesNotContain(localRoom);
+            assertThat(channelSubscribers(localRoom)).isZero();
+        });
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(ChatApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword(),
+                "--spring.jpa.show-sql=false",
+                "--spring.data.mongodb.uri=" + MONGO.getReplicaSetUrl("chatdb"),
+                "--spring.data.redis.host=" + REDIS.getHost(),
+                "--spring.data.redis.port=" + REDIS.getMappedPort(6379),
+                "--chat.cluster.enabled=true",
+                "--chat.cluster.node-id=" + nodeId,
+                "--chat.admission.enabled=false",
+                "--chat.ratelimit.enabled=false");
+    }
+
+    private Client connect(ConfigurableApplicationContext node, String username, String roomId) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        String url = "ws://localhost:" + port + "/ws-chat/websocket?username=" + username + "&roomId=" + roomId;
+        StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+
+        Client client = new Client(session, username, roomId);
+        session.subscribe(RoomSubscriptionRegistry.ROOM_DESTINATION_PREFIX + roomId, client);
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> registry(node).getLocalSubscriptionCount(roomId) > 0);
+        return client;
+    }
+
+    // Redis 채널 구독은 listener container 에서 비동기로 이루어지므로 구독 노드 수로 확인한다
+    private static void awaitRoomChannel(String roomId, int nodes) {
+        await().atMost(Duration.ofSeconds(10)).until(() -> channelSubscribers(roomId) == nodes);
+    }
+
+    private static long channelSubscribers(String roomId) throws Exception {
+        String output = REDIS.execInContainer("redis-cli", "PUBSUB", "NUMSUB", "chat:room:" + roomId).getStdout();
+        String[] lines = output.trim().split("\\s+");
+        return Long.parseLong(lines[lines.length - 1]);
+    }
+
+    private static RoomSubscriptionRegistry registry(ConfigurableApplicationContext node) {
+        return node.getBean(RoomSubscriptionRegistry.class);
+    }
+
+    private static final class Client implements StompFrameHandler {
+
+        private final StompSession session;
+        private final String username;
+        private final String roomId;
+        private final List<JsonNode> received = new CopyOnWriteArrayList<>();
+
+        private Client(StompSession session, String username, String roomId) {
+            this.session = session;
+            this.username = username;
+            this.roomId = roomId;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            // 입장 시 받는 최근 메시지 backfill 은 fan-out 과 무관하다
+            if (headers.containsKey("backfill")) {
+                return;
+            }
+            JsonNode node = (JsonNode) payload;
+            if (node.isArray()) {
+                node.forEach(received::add);
+            } else {
+                received.add(node);
+            }
+        }
+
+        void send(String message) {
+            session.send("/pub/room/chat/send", Map.of(
+                    "roomId", roomId,
+                    "senderId", username,
+                    "message", message,
+                    "messageType", "CHAT"));
+        }
+
+        long count(String message) {
+            return received.stream()
+                    .filter(node -> "CHAT".equals(node.path("messageType").asText()))
+                    .filter(node -> message.equals(node.path("message").asText()))
+                    .count();
+        }
+    }
+}
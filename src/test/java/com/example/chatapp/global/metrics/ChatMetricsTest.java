@@ -0,0 +1,75 @@
+package com.example.chatapp.global.metrics;
+
+import com.example.chatapp.global.metrics.ChatMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 단계별 타이머와 오류 카운터가 미리 등록되고 기록한 단계에만 쌓이는지, 방 태그 수가 상한에서 멈추는지 확인한다.
+ */
+class ChatMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatMetrics chatMetrics = new ChatMetrics(registry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(chatMetrics, "histogramEnabled", false);
+        ReflectionTestUtils.setField(chatMetrics, "maxRoomTags", 2);
+        chatMetrics.init();
+    }
+
+    @Test
+    void registersEveryStageBeforeFirstRecord() {
+        for (Stage stage : Stage.values()) {
+            String tag = stage.name().toLowerCase();
+            assertThat(registry.get("chat.message.stage").tag("stage", tag).timer().count()).isZero();
+            assertThat(registry.get("chat.errors").tag("stage", tag).counter().count()).isZero();
+        }
+    }
+
+    @Test
+    void recordsElapsedTimeOnlyForGivenStage() {
+        long elapsed = chatMetrics.record(Stage.PERSIST, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(elapsed).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(registry.get("chat.message.stage").tag("stage", "persist").timer().count()).isEqualTo(1);
+        assertThat(registry.get("chat.message.stage").tag("stage", "persist").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isEqualTo((double) elapsed);
+        for (Stage stage : Stage.values()) {
+            if (stage != Stage.PERSIST) {
+                assertThat(registry.get("chat.message.stage").tag("stage", stage.name().toLowerCase()).timer().count())
+                        .isZero();
+            }
+        }
+    }
+
+    @Test
+    void countsErrorsPerStage() {
+        chatMetrics.error(Stage.BROADCAST);
+        chatMetrics.error(Stage.BROADCAST);
+        chatMetrics.processError();
+
+        assertThat(registry.get("chat.errors").tag("stage", "broadcast").counter().count()).isEqualTo(2);
+        assertThat(registry.get("chat.errors").tag("stage", "process").counter().count()).isEqualTo(1);
+        assertThat(registry.get("chat.errors").tag("stage", "build").counter().count()).isZero();
+    }
+
+    @Test
+    void foldsRoomsBeyondTagLimitIntoOther() {
+        chatMetrics.roomMessage("room-a");
+        chatMetrics.roomMessage("room-b");
+        chatMetrics.roomMessage("room-c");
+        chatMetrics.roomMessage("room-a");
+
+        assertThat(registry.get("chat.room.messages").tag("room", "room-a").counter().count()).isEqualTo(2);
+        assertThat(registry.get("chat.room.messages").tag("room", "other").counter().count()).isEqualTo(1);
+        assertThat(registry.find("chat.room.messages").tag("room", "room-c").counter()).isNull();
+    }
+}